@@ -1,10 +1,24 @@
 package com.dali.wellness.analytics;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
 
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.analytics.dto.HabitCorrelation;
+import com.dali.wellness.analytics.dto.HealthTrend;
+import com.dali.wellness.analytics.dto.WeeklyHabitReport;
+import com.dali.wellness.analytics.entity.HealthAlert;
+import com.dali.wellness.analytics.service.AnalyticsCacheService;
+import com.dali.wellness.analytics.service.CorrelationService;
+import com.dali.wellness.analytics.service.DashboardStreamService;
+import com.dali.wellness.analytics.service.HealthAnomalyDetector;
+import com.dali.wellness.config.QueryBudget;
+
 /**
  * Analytics Controller - Wellness Tracker
  * ────────────────────────────────────────
@@ -14,15 +28,31 @@ import java.util.Map;
  *   GET /api/analytics/habits/weekly  - Weekly habit completion report
  *   GET /api/analytics/health/trend   - Health metrics trend
  *   GET /api/analytics/dashboard      - Combined dashboard overview
+ *   GET /api/analytics/dashboard/stream - Live dashboard (server-sent events)
+ *   GET /api/analytics/cache/stats    - Analytics cache hit/miss/eviction stats
+ *   GET /api/analytics/correlations   - Habit vs. sleep/mood/stress/energy correlations
+ *   GET /api/analytics/alerts         - Recent sleep-drop / stress-spike alerts
+ *
+ * Query budgets are the statement counts of a cache miss.
  */
 @RestController
 @RequestMapping("/api/analytics")
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final AnalyticsCacheService analyticsCacheService;
+    private final CorrelationService correlationService;
+    private final HealthAnomalyDetector anomalyDetector;
+    private final DashboardStreamService dashboardStreamService;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, AnalyticsCacheService analyticsCacheService,
+                               CorrelationService correlationService, HealthAnomalyDetector anomalyDetector,
+                               DashboardStreamService dashboardStreamService) {
         this.analyticsService = analyticsService;
+        this.analyticsCacheService = analyticsCacheService;
+        this.correlationService = correlationService;
+        this.anomalyDetector = anomalyDetector;
+        this.dashboardStreamService = dashboardStreamService;
     }
 
     /**
@@ -30,7 +60,8 @@ public class AnalyticsController {
      * Returns habit completion stats for the current week.
      */
     @GetMapping("/habits/weekly")
-    public ResponseEntity<Map<String, Object>> getWeeklyHabitReport() {
+    @QueryBudget(2)
+    public ResponseEntity<WeeklyHabitReport> getWeeklyHabitReport() {
         return ResponseEntity.ok(analyticsService.getWeeklyHabitReport());
     }
 
@@ -39,7 +70,8 @@ public class AnalyticsController {
      * Returns health metrics trend (sleep, mood, stress, energy).
      */
     @GetMapping("/health/trend")
-    public ResponseEntity<Map<String, Object>> getHealthTrend(
+    @QueryBudget(1)
+    public ResponseEntity<HealthTrend> getHealthTrend(
             @RequestParam(defaultValue = "7") int days) {
         return ResponseEntity.ok(analyticsService.getHealthTrend(days));
     }
@@ -49,7 +81,53 @@ public class AnalyticsController {
      * Returns combined dashboard with today's snapshot + weekly trends.
      */
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboard() {
+    @QueryBudget(5)
+    public ResponseEntity<Dashboard> getDashboard() {
         return ResponseEntity.ok(analyticsService.getDashboard());
     }
+
+    /**
+     * GET /api/analytics/dashboard/stream
+     * Server-sent events: a snapshot, then the changed sections after each
+     * write. Send Last-Event-ID on reconnect to receive only missed deltas.
+     */
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(0)
+    public SseEmitter streamDashboard(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return dashboardStreamService.subscribe(lastEventId);
+    }
+
+    /**
+     * GET /api/analytics/correlations?minSamples=14
+     * Returns, per habit, metric and lag (0-3 days), how the metric relates
+     * to doing the habit. Read from running statistics; no history scan.
+     */
+    @GetMapping("/correlations")
+    @QueryBudget(1)
+    public ResponseEntity<List<HabitCorrelation>> getCorrelations(
+            @RequestParam(defaultValue = "14") int minSamples) {
+        return ResponseEntity.ok(correlationService.getCorrelations(minSamples));
+    }
+
+    /**
+     * GET /api/analytics/alerts?limit=20
+     * Returns the most recent anomaly alerts (1-100), newest first.
+     */
+    @GetMapping("/alerts")
+    @QueryBudget(1)
+    public ResponseEntity<List<HealthAlert>> getAlerts(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(anomalyDetector.getRecentAlerts(Math.max(1, Math.min(limit, 100))));
+    }
+
+    /**
+     * GET /api/analytics/cache/stats
+     * Returns size, hits, misses and evictions per analytics cache.
+     */
+    @GetMapping("/cache/stats")
+    @QueryBudget(0)
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(analyticsCacheService.getStats());
+    }
 }
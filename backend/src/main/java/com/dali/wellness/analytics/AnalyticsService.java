@@ -6,73 +6,107 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import com.dali.wellness.tracking.entity.Habit;
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.analytics.dto.HabitWeeklyStats;
+import com.dali.wellness.analytics.dto.HealthTrend;
+import com.dali.wellness.analytics.dto.HealthTrendPoint;
+import com.dali.wellness.analytics.dto.HealthTrendPoint.MetricStats;
+import com.dali.wellness.analytics.dto.Streak;
+import com.dali.wellness.analytics.dto.TodaySnapshot;
+import com.dali.wellness.analytics.dto.WeeklyHabitReport;
+import com.dali.wellness.analytics.service.AnalyticsCacheService;
+import com.dali.wellness.analytics.service.StreakEngine;
+import com.dali.wellness.tracking.dto.HabitLogTotals;
 import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.entity.HealthMetricRollup;
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
 import com.dali.wellness.tracking.repository.HabitLogRepository;
-import com.dali.wellness.tracking.repository.HabitRepository;
 import com.dali.wellness.tracking.repository.HealthMetricRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupRepository;
+import com.dali.wellness.tracking.repository.TaskRepository;
+
+import io.micrometer.core.annotation.Timed;
 
 /**
  * Analytics Service - Wellness Tracker
  * ─────────────────────────────────────
  * Correlates sleep, mood, and habits.
+ *
+ * Results are cached (see {@link AnalyticsCacheService} for invalidation).
+ * The dashboard reuses the cached weekly report and trend through self,
+ * the proxied bean (a call on this would bypass the cache).
+ * Every public method is timed as wellness.analytics (tags: class, method),
+ * cache hits included.
  */
 @Service
+@Timed(value = "wellness.analytics", description = "Analytics computations (cache hits included)")
 public class AnalyticsService {
 
-    private final HabitRepository habitRepository;
+    private static final int MAX_TREND_POINTS = 120;
+
     private final HabitLogRepository habitLogRepository;
     private final HealthMetricRepository healthMetricRepository;
-
-    public AnalyticsService(HabitRepository habitRepository, HabitLogRepository habitLogRepository, HealthMetricRepository healthMetricRepository) {
-        this.habitRepository = habitRepository;
+    private final HealthMetricRollupRepository metricRollupRepository;
+    private final TaskRepository taskRepository;
+    private final StreakEngine streakEngine;
+    private final AnalyticsService self;
+
+    public AnalyticsService(HabitLogRepository habitLogRepository, HealthMetricRepository healthMetricRepository,
+                            HealthMetricRollupRepository metricRollupRepository, TaskRepository taskRepository,
+                            StreakEngine streakEngine, @Lazy AnalyticsService self) {
         this.habitLogRepository = habitLogRepository;
         this.healthMetricRepository = healthMetricRepository;
+        this.metricRollupRepository = metricRollupRepository;
+        this.taskRepository = taskRepository;
+        this.streakEngine = streakEngine;
+        this.self = self;
     }
 
     /**
      * Weekly habit completion report.
+     * Two statements total: per-habit totals for the week + logged days for streaks.
      */
-    public Map<String, Object> getWeeklyHabitReport() {
+    @Cacheable(cacheNames = AnalyticsCacheService.WEEKLY_HABIT_REPORT, key = AnalyticsCacheService.KEY)
+    public WeeklyHabitReport getWeeklyHabitReport() {
         LocalDate today = LocalDate.now();
         LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
         LocalDate weekEnd = weekStart.plusDays(6);
 
-        List<Habit> habits = habitRepository.findAll();
-        List<Map<String, Object>> habitStats = new ArrayList<>();
+        List<HabitLogTotals> totals = habitLogRepository.findTotalsPerHabitInRange(weekStart, weekEnd);
+        Map<Long, Streak> streaks = streakEngine.calculateStreaks(today);
+        List<HabitWeeklyStats> habitStats = new ArrayList<>(totals.size());
 
         double totalCompletion = 0;
         int habitsWithTarget = 0;
 
-        for (Habit habit : habits) {
-            long completed = habitLogRepository.countByHabitIdAndDateRange(
-                    habit.getId(), weekStart, weekEnd);
+        for (HabitLogTotals row : totals) {
+            long completed = row.logCount();
 
-            Integer targetVal = habit.getTargetPerWeek();
+            Integer targetVal = row.targetPerWeek();
             int target = targetVal != null ? targetVal : 7;
             double rate = target > 0 ? Math.min(1.0, (double) completed / target) : 1.0;
 
-            int streak = calculateStreak(habit.getId());
+            Streak streak = streaks.getOrDefault(row.habitId(), Streak.NONE);
 
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("habitId", habit.getId());
-            stats.put("habitName", habit.getName());
-            stats.put("category", habit.getCategory());
-            stats.put("targetPerWeek", target);
-            stats.put("completedThisWeek", (int) completed);
-            stats.put("completionRate", round2(rate));
-            stats.put("currentStreak", streak);
+            habitStats.add(new HabitWeeklyStats(
+                    row.habitId(),
+                    row.habitName(),
+                    row.category(),
+                    target,
+                    (int) completed,
+                    row.valueSum(),
+                    round2(rate),
+                    streak.current(),
+                    streak.longest()));
 
-            habitStats.add(stats);
-
-            if (habit.getTargetPerWeek() != null && habit.getTargetPerWeek() > 0) {
+            if (targetVal != null && targetVal > 0) {
                 totalCompletion += rate;
                 habitsWithTarget++;
             }
@@ -80,140 +114,93 @@ public class AnalyticsService {
 
         double overallRate = habitsWithTarget > 0 ? totalCompletion / habitsWithTarget : 0;
 
-        Map<String, Object> report = new HashMap<>();
-        report.put("weekStart", weekStart);
-        report.put("weekEnd", weekEnd);
-        report.put("totalHabits", habits.size());
-        report.put("overallCompletionRate", round2(overallRate));
-        report.put("habits", habitStats);
-
-        return report;
+        return new WeeklyHabitReport(weekStart, weekEnd, totals.size(), round2(overallRate), habitStats);
     }
 
     /**
-     * Calculate streak for a habit.
+     * Health trends for the last N days, read from the finest rollup tier
+     * that answers the window in at most {@value #MAX_TREND_POINTS} buckets
+     * (a 2-year window reads ~105 WEEK rows). One statement; the window
+     * averages are merged from the buckets' sums and counts.
      */
-    private int calculateStreak(Long habitId) {
-        LocalDate today = LocalDate.now();
-        int streak = 0;
-        LocalDate checkDate = today;
-
-        for (int i = 0; i < 365; i++) {
-            List<?> logs = habitLogRepository.findByHabitIdAndLogDate(habitId, checkDate);
-            if (!logs.isEmpty()) {
-                streak++;
-                checkDate = checkDate.minusDays(1);
-            } else {
-                break;
-            }
+    @Cacheable(cacheNames = AnalyticsCacheService.HEALTH_TREND, key = AnalyticsCacheService.KEY)
+    public HealthTrend getHealthTrend(int days) {
+        LocalDate endDate = LocalDate.now();
+        Resolution resolution = trendResolution(days);
+        LocalDateTime start = resolution.bucketStart(endDate.minusDays(days - 1).atStartOfDay());
+
+        List<HealthMetricRollup> buckets = metricRollupRepository.findBuckets(
+                resolution, start, endDate.plusDays(1).atStartOfDay());
+
+        HealthMetricRollup total = new HealthMetricRollup(resolution, start);
+        List<HealthTrendPoint> series = new ArrayList<>(buckets.size());
+        for (HealthMetricRollup bucket : buckets) {
+            total.add(bucket);
+            series.add(new HealthTrendPoint(
+                    bucket.getBucketStart(),
+                    bucket.getRecordCount(),
+                    MetricStats.of(bucket.getSleepHours()),
+                    MetricStats.of(bucket.getMoodScore()),
+                    MetricStats.of(bucket.getStressLevel()),
+                    MetricStats.of(bucket.getEnergyLevel())));
         }
-        return streak;
-    }
 
-    /**
-     * Health trends for the last N days.
-     */
-    public Map<String, Object> getHealthTrend(int days) {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(days - 1);
-
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-
-        List<HealthMetric> metrics = healthMetricRepository
-                .findByRecordedAtBetweenOrderByRecordedAtDesc(startDateTime, endDateTime);
-
-        Double avgSleep = metrics.stream()
-                .filter(m -> m.getSleepHours() != null)
-                .mapToDouble(HealthMetric::getSleepHours)
-                .average().orElse(0.0);
-
-        Double avgMood = metrics.stream()
-                .filter(m -> m.getMoodScore() != null)
-                .mapToInt(HealthMetric::getMoodScore)
-                .average().orElse(0.0);
-
-        Double avgStress = metrics.stream()
-                .filter(m -> m.getStressLevel() != null)
-                .mapToInt(HealthMetric::getStressLevel)
-                .average().orElse(0.0);
-
-        Double avgEnergy = metrics.stream()
-                .filter(m -> m.getEnergyLevel() != null)
-                .mapToInt(HealthMetric::getEnergyLevel)
-                .average().orElse(0.0);
-
-        List<Map<String, Object>> dailyData = metrics.stream()
-                .collect(Collectors.groupingBy(
-                        m -> m.getRecordedAt().toLocalDate(),
-                        Collectors.reducing((a, b) ->
-                                a.getRecordedAt().isAfter(b.getRecordedAt()) ? a : b)))
-                .values().stream()
-                .filter(opt -> opt.isPresent())
-                .map(opt -> {
-                    HealthMetric m = opt.get();
-                    Map<String, Object> day = new HashMap<>();
-                    day.put("date", m.getRecordedAt().toLocalDate());
-                    day.put("sleepHours", m.getSleepHours());
-                    day.put("moodScore", m.getMoodScore());
-                    day.put("stressLevel", m.getStressLevel());
-                    day.put("energyLevel", m.getEnergyLevel());
-                    return day;
-                })
-                .sorted((a, b) -> ((LocalDate) b.get("date")).compareTo((LocalDate) a.get("date")))
-                .collect(Collectors.toList());
-
-        Map<String, Object> trend = new HashMap<>();
-        trend.put("startDate", startDate);
-        trend.put("endDate", endDate);
-        trend.put("totalRecords", metrics.size());
-        trend.put("avgSleepHours", round2(avgSleep));
-        trend.put("avgMoodScore", round2(avgMood));
-        trend.put("avgStressLevel", round2(avgStress));
-        trend.put("avgEnergyLevel", round2(avgEnergy));
-        trend.put("dailyData", dailyData);
-
-        return trend;
+        return new HealthTrend(
+                start.toLocalDate(),
+                endDate,
+                resolution,
+                total.getRecordCount(),
+                round2(total.getSleepHours().avg()),
+                round2(total.getMoodScore().avg()),
+                round2(total.getStressLevel().avg()),
+                round2(total.getEnergyLevel().avg()),
+                series);
     }
 
     /**
-     * Dashboard: today's snapshot + trends.
+     * Dashboard: today's snapshot + trends + task counts.
      */
-    public Map<String, Object> getDashboard() {
+    @Cacheable(cacheNames = AnalyticsCacheService.DASHBOARD, key = AnalyticsCacheService.KEY)
+    public Dashboard getDashboard() {
         LocalDate today = LocalDate.now();
         LocalDateTime todayStart = today.atStartOfDay();
         LocalDateTime todayEnd = today.atTime(LocalTime.MAX);
 
-        // Today's habits completed
-        List<Habit> allHabits = habitRepository.findAll();
-        int habitsCompletedToday = 0;
-        for (Habit h : allHabits) {
-            if (!habitLogRepository.findByHabitIdAndLogDate(h.getId(), today).isEmpty()) {
-                habitsCompletedToday++;
-            }
-        }
+        // Today's habits completed: a running streak means the habit was logged today
+        WeeklyHabitReport habitReport = self.getWeeklyHabitReport();
+        int habitsCompletedToday = (int) habitReport.habits().stream()
+                .filter(h -> h.currentStreak() > 0)
+                .count();
 
         // Latest health metric
-        List<HealthMetric> todayMetrics = healthMetricRepository
-                .findByRecordedAtBetweenOrderByRecordedAtDesc(todayStart, todayEnd);
-        HealthMetric latestHealth = todayMetrics.isEmpty() ? null : todayMetrics.get(0);
-
-        Map<String, Object> snapshot = new HashMap<>();
-        snapshot.put("habitsCompletedToday", habitsCompletedToday);
-        snapshot.put("habitsTotal", allHabits.size());
-        snapshot.put("sleepLastNight", latestHealth != null ? latestHealth.getSleepHours() : null);
-        snapshot.put("currentMood", latestHealth != null ? latestHealth.getMoodScore() : null);
-
-        Map<String, Object> dashboard = new HashMap<>();
-        dashboard.put("asOf", today);
-        dashboard.put("today", snapshot);
-        dashboard.put("habitReport", getWeeklyHabitReport());
-        dashboard.put("healthTrend", getHealthTrend(7));
-
-        return dashboard;
+        HealthMetric latestHealth = healthMetricRepository
+                .findFirstByRecordedAtBetweenOrderByRecordedAtDesc(todayStart, todayEnd)
+                .orElse(null);
+
+        TodaySnapshot snapshot = new TodaySnapshot(
+                habitsCompletedToday,
+                habitReport.totalHabits(),
+                latestHealth != null ? latestHealth.getSleepHours() : null,
+                latestHealth != null ? latestHealth.getMoodScore() : null);
+
+        return new Dashboard(today, snapshot, habitReport, self.getHealthTrend(7),
+                taskRepository.summarize(LocalDateTime.now()));
+    }
+
+    /**
+     * Finest tier with at most MAX_TREND_POINTS buckets in a window of N days.
+     */
+    private Resolution trendResolution(int days) {
+        if (days * 24 <= MAX_TREND_POINTS) {
+            return Resolution.HOUR;
+        }
+        if (days <= MAX_TREND_POINTS) {
+            return Resolution.DAY;
+        }
+        return days <= MAX_TREND_POINTS * 7 ? Resolution.WEEK : Resolution.MONTH;
     }
 
-    private Double round2(Double value) {
-        return Math.round(value * 100.0) / 100.0;
+    private double round2(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : 0.0;
     }
 }
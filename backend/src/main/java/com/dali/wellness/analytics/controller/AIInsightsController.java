@@ -2,47 +2,83 @@ package com.dali.wellness.analytics.controller;
 
 import java.util.Map;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.dali.wellness.analytics.AnalyticsService;
-import com.dali.wellness.analytics.service.GeminiService;
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.analytics.service.AiInsightService;
+import com.dali.wellness.analytics.service.InsightPromptBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/analytics")
 public class AIInsightsController {
 
     private final AnalyticsService analyticsService;
-    private final GeminiService geminiService;
+    private final AiInsightService aiInsightService;
+    private final InsightPromptBuilder promptBuilder;
 
-    public AIInsightsController(AnalyticsService analyticsService, GeminiService geminiService) {
+    public AIInsightsController(AnalyticsService analyticsService, AiInsightService aiInsightService,
+                                InsightPromptBuilder promptBuilder) {
         this.analyticsService = analyticsService;
-        this.geminiService = geminiService;
+        this.aiInsightService = aiInsightService;
+        this.promptBuilder = promptBuilder;
     }
 
     @GetMapping("/ai-insights")
     public Map<String, String> getAIInsights() {
         // 1. Gather Data
-        Map<String, Object> dashboardData = analyticsService.getDashboard();
+        Dashboard dashboardData = analyticsService.getDashboard();
 
-        // 2. Construct Prompt
-        String prompt = constructPrompt(dashboardData);
+        // 2. Construct Prompt (compact, deterministic, token-budgeted)
+        String prompt = promptBuilder.build(dashboardData);
 
-        // 3. Call Gemini (now handles retries and fallbacks internally)
-        String insight = geminiService.generateContent(prompt);
+        // 3. Call Gemini (cached by prompt hash; retries and fallbacks handled internally)
+        String insight = aiInsightService.getInsight(prompt);
 
         // 4. Return Result
         return Map.of("insight", insight);
     }
 
-    private String constructPrompt(Map<String, Object> data) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("You are a supportive and knowledgeable wellness coach. ");
-        sb.append("Analyze the following weekly wellness data for a user and provide 3 concise, actionable insights or encouraging remarks to help them improve their habits and health. ");
-        sb.append("Keep the tone positive and motivating. Format the output as a simple list or paragraph.\n\n");
-        sb.append("Data Summary:\n");
-        sb.append(data.toString()); // Map.toString() provides a readable enough JSON-like structure
-        return sb.toString();
+    /**
+     * Async variant: returns a Mono, so Spring MVC releases the Tomcat worker
+     * while Gemini is working (including 503 backoff and fallback).
+     * The blocking JDBC dashboard read runs on the bounded-elastic pool.
+     * Gemini work is capped by gemini.client.total-timeout, which stays
+     * below spring.mvc.async.request-timeout so retries and the fallback
+     * can finish before the container gives up on the request.
+     */
+    @GetMapping("/ai-insights/async")
+    public Mono<Map<String, String>> getAIInsightsAsync() {
+        return Mono.fromCallable(analyticsService::getDashboard)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(promptBuilder::build)
+                .flatMap(aiInsightService::getInsightAsync)
+                .map(insight -> Map.of("insight", insight));
+    }
+
+    /**
+     * Streaming variant (Server-Sent Events): "token" events carry text chunks
+     * as Gemini produces them, then a single "done" (or "error") event.
+     * Chunks are written one at a time as the client consumes them;
+     * a client disconnect cancels the upstream Gemini request.
+     */
+    @GetMapping(path = "/ai-insights/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamAIInsights() {
+        return Mono.fromCallable(analyticsService::getDashboard)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(promptBuilder::build)
+                .flatMapMany(aiInsightService::streamInsight)
+                .map(chunk -> ServerSentEvent.builder(chunk).event("token").build())
+                .concatWith(Mono.fromSupplier(() -> ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> Mono.just(
+                        ServerSentEvent.builder(aiInsightService.failureMessage(e)).event("error").build()));
     }
 }
@@ -0,0 +1,19 @@
+package com.dali.wellness.analytics.dto;
+
+import java.time.LocalDate;
+
+import com.dali.wellness.tracking.dto.TaskSummary;
+
+/**
+ * Dashboard DTO
+ * ─────────────
+ * Today's snapshot + this week's habit report + 7-day health trend
+ * + open / overdue tasks.
+ */
+public record Dashboard(
+        LocalDate asOf,
+        TodaySnapshot today,
+        WeeklyHabitReport habitReport,
+        HealthTrend healthTrend,
+        TaskSummary tasks) {
+}
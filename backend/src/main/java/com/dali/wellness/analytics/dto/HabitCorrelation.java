@@ -0,0 +1,27 @@
+package com.dali.wellness.analytics.dto;
+
+import com.dali.wellness.analytics.entity.HabitMetricCorrelation.Metric;
+
+/**
+ * HabitCorrelation DTO
+ * ────────────────────
+ * How one health metric relates to doing a habit, lagDays later.
+ *
+ *   samples         – days counted (habit tracked, metric recorded lagDays later)
+ *   daysDone        – samples on which the habit was logged
+ *   coefficient     – Pearson r between "logged" (0/1) and the metric, -1..1
+ *                     (null while either side has no variance)
+ *   meanWhenDone    – average metric value after a logged day
+ *   meanWhenSkipped – average metric value after a day without a log
+ */
+public record HabitCorrelation(
+        Long habitId,
+        String habitName,
+        Metric metric,
+        int lagDays,
+        long samples,
+        long daysDone,
+        Double coefficient,
+        Double meanWhenDone,
+        Double meanWhenSkipped) {
+}
@@ -0,0 +1,18 @@
+package com.dali.wellness.analytics.dto;
+
+/**
+ * HabitWeeklyStats DTO
+ * ────────────────────
+ * One row of the weekly habit report.
+ */
+public record HabitWeeklyStats(
+        Long habitId,
+        String habitName,
+        String category,
+        int targetPerWeek,
+        int completedThisWeek,
+        long valueThisWeek,
+        double completionRate,
+        int currentStreak,
+        int longestStreak) {
+}
@@ -0,0 +1,28 @@
+package com.dali.wellness.analytics.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
+
+/**
+ * HealthTrend DTO
+ * ───────────────
+ * Averages over the window plus one point per bucket (newest first).
+ *
+ *   resolution – bucket size of the series: HOUR for windows up to 5 days,
+ *                then DAY, WEEK and MONTH (never more than 120 points)
+ *   startDate  – start of the oldest bucket (the window is widened to a
+ *                bucket boundary, e.g. back to a Monday for WEEK)
+ */
+public record HealthTrend(
+        LocalDate startDate,
+        LocalDate endDate,
+        Resolution resolution,
+        long totalRecords,
+        double avgSleepHours,
+        double avgMoodScore,
+        double avgStressLevel,
+        double avgEnergyLevel,
+        List<HealthTrendPoint> series) {
+}
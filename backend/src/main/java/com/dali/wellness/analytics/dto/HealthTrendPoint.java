@@ -0,0 +1,31 @@
+package com.dali.wellness.analytics.dto;
+
+import java.time.LocalDateTime;
+
+import com.dali.wellness.tracking.entity.MetricAggregate;
+
+/**
+ * HealthTrendPoint DTO
+ * ────────────────────
+ * One bucket of a health trend: number of readings and avg/min/max per
+ * metric (null when the metric was not recorded in the bucket).
+ */
+public record HealthTrendPoint(
+        LocalDateTime start,
+        long records,
+        MetricStats sleepHours,
+        MetricStats moodScore,
+        MetricStats stressLevel,
+        MetricStats energyLevel) {
+
+    public record MetricStats(Double avg, Double min, Double max) {
+
+        public static MetricStats of(MetricAggregate aggregate) {
+            if (aggregate.getCount() == 0) {
+                return null;
+            }
+            return new MetricStats(Math.round(aggregate.avg() * 100.0) / 100.0,
+                    aggregate.getMin(), aggregate.getMax());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.dali.wellness.analytics.dto;
+
+/**
+ * Streak DTO
+ * ──────────
+ * Consecutive-day statistics for a single habit.
+ *
+ *   current – days in a row logged, ending today (0 if not logged today)
+ *   longest – longest run of consecutive logged days in the scanned window
+ */
+public record Streak(int current, int longest) {
+
+    public static final Streak NONE = new Streak(0, 0);
+}
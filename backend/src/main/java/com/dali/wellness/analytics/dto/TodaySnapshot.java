@@ -0,0 +1,13 @@
+package com.dali.wellness.analytics.dto;
+
+/**
+ * TodaySnapshot DTO
+ * ─────────────────
+ * Today's habit progress and latest health reading (null if none yet).
+ */
+public record TodaySnapshot(
+        int habitsCompletedToday,
+        int habitsTotal,
+        Double sleepLastNight,
+        Integer currentMood) {
+}
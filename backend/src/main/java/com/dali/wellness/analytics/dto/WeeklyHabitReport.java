@@ -0,0 +1,17 @@
+package com.dali.wellness.analytics.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * WeeklyHabitReport DTO
+ * ─────────────────────
+ * Habit completion stats for the current Monday–Sunday week.
+ */
+public record WeeklyHabitReport(
+        LocalDate weekStart,
+        LocalDate weekEnd,
+        int totalHabits,
+        double overallCompletionRate,
+        List<HabitWeeklyStats> habits) {
+}
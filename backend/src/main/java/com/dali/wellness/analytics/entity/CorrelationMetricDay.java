@@ -0,0 +1,74 @@
+package com.dali.wellness.analytics.entity;
+
+import java.time.LocalDate;
+
+import com.dali.wellness.tracking.dto.DailyHealthAverages;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * CorrelationMetricDay Entity
+ * ────────────────────────────
+ * The daily metric averages currently counted in habit_metric_correlation.
+ * When a day's readings change, CorrelationService removes these values
+ * from the statistics and adds the new ones.
+ *
+ * Table: correlation_metric_day
+ * ┌────────────┬─────────────┬────────────┬──────────────┬──────────────┐
+ * │ metric_day │ sleep_hours │ mood_score │ stress_level │ energy_level │
+ * └────────────┴─────────────┴────────────┴──────────────┴──────────────┘
+ */
+@Entity
+@Table(name = "correlation_metric_day")
+public class CorrelationMetricDay {
+
+    @Id
+    @Column(name = "metric_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "sleep_hours")
+    private Double sleepHours;
+
+    @Column(name = "mood_score")
+    private Double moodScore;
+
+    @Column(name = "stress_level")
+    private Double stressLevel;
+
+    @Column(name = "energy_level")
+    private Double energyLevel;
+
+    public CorrelationMetricDay() {
+    }
+
+    public CorrelationMetricDay(DailyHealthAverages averages) {
+        this.day = averages.date();
+        this.sleepHours = averages.avgSleepHours();
+        this.moodScore = averages.avgMoodScore();
+        this.stressLevel = averages.avgStressLevel();
+        this.energyLevel = averages.avgEnergyLevel();
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Double getSleepHours() {
+        return sleepHours;
+    }
+
+    public Double getMoodScore() {
+        return moodScore;
+    }
+
+    public Double getStressLevel() {
+        return stressLevel;
+    }
+
+    public Double getEnergyLevel() {
+        return energyLevel;
+    }
+}
@@ -0,0 +1,241 @@
+package com.dali.wellness.analytics.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.dali.wellness.tracking.dto.DailyHealthAverages;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * HabitMetricCorrelation Entity
+ * ──────────────────────────────
+ * Running statistics for one (habit, health metric, lag) pair, kept up to
+ * date by CorrelationService on every habit log and health metric write.
+ *
+ * One observation per day d since the habit's window_start:
+ *   x = 1 if the habit was logged on day d, else 0
+ *   y = the metric's daily average on day d + lag_days (days without a reading are skipped)
+ *
+ * Table: habit_metric_correlation
+ * ┌──────────┬────────┬──────────┬──────────────┬───┬────────┬────────┬──────┬──────┬──────┐
+ * │ habit_id │ metric │ lag_days │ window_start │ n │ mean_x │ mean_y │ m2_x │ m2_y │ c_xy │
+ * └──────────┴────────┴──────────┴──────────────┴───┴────────┴────────┴──────┴──────┴──────┘
+ *   PK: (habit_id, metric, lag_days)
+ *   m2_x, m2_y, c_xy are Welford sums of squared deviations / co-deviations,
+ *   so observations can be added and removed in O(1) without cancellation.
+ */
+@Entity
+@Table(name = "habit_metric_correlation")
+@IdClass(HabitMetricCorrelation.Key.class)
+public class HabitMetricCorrelation {
+
+    /**
+     * Correlated health metrics (daily averages from health_metric).
+     */
+    public enum Metric {
+        SLEEP_HOURS,
+        MOOD_SCORE,
+        STRESS_LEVEL,
+        ENERGY_LEVEL;
+
+        public Double valueOf(DailyHealthAverages day) {
+            return switch (this) {
+                case SLEEP_HOURS -> day.avgSleepHours();
+                case MOOD_SCORE -> day.avgMoodScore();
+                case STRESS_LEVEL -> day.avgStressLevel();
+                case ENERGY_LEVEL -> day.avgEnergyLevel();
+            };
+        }
+
+        public Double valueOf(CorrelationMetricDay day) {
+            return switch (this) {
+                case SLEEP_HOURS -> day.getSleepHours();
+                case MOOD_SCORE -> day.getMoodScore();
+                case STRESS_LEVEL -> day.getStressLevel();
+                case ENERGY_LEVEL -> day.getEnergyLevel();
+            };
+        }
+    }
+
+    private static final double MIN_M2 = 1e-9;
+
+    @Id
+    @Column(name = "habit_id", nullable = false)
+    private Long habitId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", nullable = false, length = 20)
+    private Metric metric;
+
+    @Id
+    @Column(name = "lag_days", nullable = false)
+    private int lagDays;
+
+    /**
+     * First day counted for this habit (its earliest log day).
+     */
+    @Column(name = "window_start", nullable = false)
+    private LocalDate windowStart;
+
+    @Column(name = "n", nullable = false)
+    private long n;
+
+    @Column(name = "mean_x", nullable = false)
+    private double meanX;
+
+    @Column(name = "mean_y", nullable = false)
+    private double meanY;
+
+    @Column(name = "m2_x", nullable = false)
+    private double m2X;
+
+    @Column(name = "m2_y", nullable = false)
+    private double m2Y;
+
+    @Column(name = "c_xy", nullable = false)
+    private double cXY;
+
+    public HabitMetricCorrelation() {
+    }
+
+    public HabitMetricCorrelation(Long habitId, Metric metric, int lagDays, LocalDate windowStart) {
+        this.habitId = habitId;
+        this.metric = metric;
+        this.lagDays = lagDays;
+        this.windowStart = windowStart;
+    }
+
+    /**
+     * Add one (x, y) observation.
+     */
+    public void add(double x, double y) {
+        n++;
+        double dx = x - meanX;
+        meanX += dx / n;
+        double dy = y - meanY;
+        meanY += dy / n;
+        m2X += dx * (x - meanX);
+        m2Y += dy * (y - meanY);
+        cXY += dx * (y - meanY);
+    }
+
+    /**
+     * Remove an (x, y) observation that was added before (inverse of add).
+     */
+    public void remove(double x, double y) {
+        if (n <= 1) {
+            n = 0;
+            meanX = meanY = m2X = m2Y = cXY = 0;
+            return;
+        }
+        double oldMeanY = meanY;
+        double oldMeanX = meanX;
+        n--;
+        meanX = (oldMeanX * (n + 1) - x) / n;
+        meanY = (oldMeanY * (n + 1) - y) / n;
+        m2X -= (x - meanX) * (x - oldMeanX);
+        m2Y -= (y - meanY) * (y - oldMeanY);
+        cXY -= (x - meanX) * (y - oldMeanY);
+    }
+
+    /**
+     * Pearson correlation coefficient, or null while either side has no variance.
+     * Removals leave rounding residue in the sums, so "no variance" is
+     * decided on days done for x and with a tolerance for y.
+     */
+    public Double coefficient() {
+        long k = daysDone();
+        if (n < 2 || k == 0 || k == n || m2Y <= MIN_M2 * n) {
+            return null;
+        }
+        return Math.max(-1.0, Math.min(1.0, cXY / Math.sqrt(m2X * m2Y)));
+    }
+
+    /**
+     * Observations with x = 1 (habit logged).
+     */
+    public long daysDone() {
+        return Math.round(n * meanX);
+    }
+
+    /**
+     * Mean of y over observations with x = 1, or null if there are none.
+     * With binary x, Σ(x·y) = c_xy + k·mean_y where k = days done.
+     */
+    public Double meanWhenDone() {
+        long k = daysDone();
+        return k > 0 ? (cXY + k * meanY) / k : null;
+    }
+
+    /**
+     * Mean of y over observations with x = 0, or null if there are none.
+     */
+    public Double meanWhenSkipped() {
+        long k = daysDone();
+        return n - k > 0 ? (n * meanY - (cXY + k * meanY)) / (n - k) : null;
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getLagDays() {
+        return lagDays;
+    }
+
+    public LocalDate getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDate windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Composite primary key (habit_id, metric, lag_days).
+     */
+    public static class Key implements Serializable {
+
+        private Long habitId;
+        private Metric metric;
+        private int lagDays;
+
+        public Key() {
+        }
+
+        public Key(Long habitId, Metric metric, int lagDays) {
+            this.habitId = habitId;
+            this.metric = metric;
+            this.lagDays = lagDays;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(habitId, other.habitId) && metric == other.metric && lagDays == other.lagDays;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(habitId, metric, lagDays);
+        }
+    }
+}
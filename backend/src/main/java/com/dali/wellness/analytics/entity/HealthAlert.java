@@ -0,0 +1,120 @@
+package com.dali.wellness.analytics.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * HealthAlert Entity
+ * ──────────────────
+ * A reading flagged by HealthAnomalyDetector: the value, the running
+ * average it was compared with, and how many standard deviations away
+ * it was.
+ *
+ * Table: health_alert
+ * ┌────┬──────┬───────────┬─────────────┬───────┬──────────┬───────────┬────────────┐
+ * │ id │ kind │ metric_id │ recorded_at │ value │ expected │ deviation │ created_at │
+ * └────┴──────┴───────────┴─────────────┴───────┴──────────┴───────────┴────────────┘
+ */
+@Entity
+@Table(name = "health_alert")
+public class HealthAlert {
+
+    public enum Kind {
+        SLEEP_DROP,
+        STRESS_SPIKE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    /**
+     * The flagged health_metric row (may since have been deleted).
+     */
+    @Column(name = "metric_id", nullable = false)
+    private Long metricId;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(nullable = false)
+    private double value;
+
+    /**
+     * Running (EWMA) average of the metric before this reading.
+     */
+    @Column(nullable = false)
+    private double expected;
+
+    /**
+     * Distance from expected in standard deviations (z-score), signed.
+     */
+    @Column(nullable = false)
+    private double deviation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public HealthAlert() {
+    }
+
+    public HealthAlert(Kind kind, Long metricId, LocalDateTime recordedAt, double value, double expected,
+                       double deviation) {
+        this.kind = kind;
+        this.metricId = metricId;
+        this.recordedAt = recordedAt;
+        this.value = value;
+        this.expected = expected;
+        this.deviation = deviation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getMetricId() {
+        return metricId;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getExpected() {
+        return expected;
+    }
+
+    public double getDeviation() {
+        return deviation;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.dali.wellness.analytics.repository;
+
+import com.dali.wellness.analytics.entity.CorrelationMetricDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * CorrelationMetricDay Repository
+ * ────────────────────────────────
+ * Daily metric values counted in the correlation statistics.
+ */
+@Repository
+public interface CorrelationMetricDayRepository extends JpaRepository<CorrelationMetricDay, LocalDate> {
+
+    /**
+     * Counted days within a date range (inclusive).
+     */
+    @Query("SELECT d FROM CorrelationMetricDay d WHERE d.day BETWEEN :from AND :to")
+    List<CorrelationMetricDay> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Counted days from a date on (inclusive).
+     */
+    List<CorrelationMetricDay> findByDayGreaterThanEqual(LocalDate from);
+
+    /**
+     * Remove every row (first step of a full rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM CorrelationMetricDay d")
+    int deleteAllRows();
+}
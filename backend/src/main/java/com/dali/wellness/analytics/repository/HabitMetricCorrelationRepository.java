@@ -0,0 +1,54 @@
+package com.dali.wellness.analytics.repository;
+
+import com.dali.wellness.analytics.entity.HabitMetricCorrelation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * HabitMetricCorrelation Repository
+ * ──────────────────────────────────
+ * Running correlation statistics per (habit, metric, lag).
+ *
+ * Incremental updates read rows with a write lock, always in primary key
+ * order, so concurrent habit and metric writes serialize without deadlocks.
+ */
+@Repository
+public interface HabitMetricCorrelationRepository
+        extends JpaRepository<HabitMetricCorrelation, HabitMetricCorrelation.Key> {
+
+    /**
+     * Every row, locked for update (health metric writes touch all habits).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM HabitMetricCorrelation c ORDER BY c.habitId, c.metric, c.lagDays")
+    List<HabitMetricCorrelation> findAllForUpdate();
+
+    /**
+     * The rows of one habit, locked for update.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM HabitMetricCorrelation c WHERE c.habitId = :habitId ORDER BY c.metric, c.lagDays")
+    List<HabitMetricCorrelation> findByHabitIdForUpdate(@Param("habitId") Long habitId);
+
+    /**
+     * Rows of existing habits with at least minSamples observations,
+     * with the habit name, as [HabitMetricCorrelation, String] rows.
+     */
+    @Query("SELECT c, h.name FROM HabitMetricCorrelation c JOIN Habit h ON h.id = c.habitId " +
+           "WHERE c.n >= :minSamples ORDER BY h.name, c.habitId, c.metric, c.lagDays")
+    List<Object[]> findWithHabitName(@Param("minSamples") long minSamples);
+
+    /**
+     * Remove every row (first step of a full rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM HabitMetricCorrelation c")
+    int deleteAllRows();
+}
@@ -0,0 +1,22 @@
+package com.dali.wellness.analytics.repository;
+
+import com.dali.wellness.analytics.entity.HealthAlert;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * HealthAlert Repository
+ * ───────────────────────
+ * Data access for anomaly alerts.
+ */
+@Repository
+public interface HealthAlertRepository extends JpaRepository<HealthAlert, Long> {
+
+    /**
+     * Most recent alerts first.
+     */
+    List<HealthAlert> findAllByOrderByIdDesc(Limit limit);
+}
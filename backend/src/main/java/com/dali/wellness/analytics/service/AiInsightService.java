@@ -0,0 +1,144 @@
+package com.dali.wellness.analytics.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * AI Insight Service
+ * ──────────────────
+ * Caches Gemini answers by a SHA-256 hash of the prompt.
+ *
+ *   • Identical dashboards reuse the last insight until the TTL expires.
+ *   • Concurrent identical requests share ONE in-flight upstream call
+ *     (the cache stores the pending future, not just the result); concurrent
+ *     identical streams share ONE Gemini stream, replayed to late joiners.
+ *   • Failed calls and empty answers are not cached; the next request retries.
+ *
+ * Registered with the CacheManager as "aiInsights", so it shows up in
+ * /api/analytics/cache/stats and is cleared by the midnight rollover.
+ */
+@Service
+public class AiInsightService {
+
+    public static final String AI_INSIGHTS = "aiInsights";
+
+    private final GeminiService geminiService;
+    private final AsyncCache<String, String> insights;
+
+    /**
+     * Gemini streams still running, by prompt hash; removed when they end.
+     */
+    private final ConcurrentMap<String, Flux<String>> streams = new ConcurrentHashMap<>();
+
+    public AiInsightService(GeminiService geminiService,
+                            CacheManager cacheManager,
+                            @Value("${gemini.cache.ttl:PT30M}") Duration ttl,
+                            @Value("${gemini.cache.max-size:100}") long maxSize) {
+        this.geminiService = geminiService;
+        this.insights = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache(AI_INSIGHTS, asObjectCache(insights));
+        }
+    }
+
+    /**
+     * Returns the insight for a prompt, calling Gemini at most once per
+     * distinct prompt within the TTL. Blocks the calling thread.
+     */
+    public String getInsight(String prompt) {
+        try {
+            return lookup(prompt).join();
+        } catch (Exception e) {
+            return geminiService.toUserMessage(e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getInsight(String)}: same cache and
+     * coalescing, but completes on the HTTP client's event loop.
+     */
+    public Mono<String> getInsightAsync(String prompt) {
+        // suppressCancel: a disconnecting client must not cancel the shared future
+        return Mono.fromFuture(() -> lookup(prompt), true)
+                .onErrorResume(e -> Mono.just(geminiService.toUserMessage(e)));
+    }
+
+    /**
+     * Streaming variant: a cached (or in-flight) insight is replayed as one
+     * chunk; otherwise chunks are forwarded from Gemini as they arrive and
+     * the full text is cached once the stream completes.
+     *
+     * Identical streams requested while one is running join it: they get
+     * the chunks sent so far, then the rest live. The Gemini stream is
+     * cancelled only when its last client disconnects.
+     */
+    public Flux<String> streamInsight(String prompt) {
+        return Flux.defer(() -> {
+            String key = hash(prompt);
+            CompletableFuture<String> cached = insights.getIfPresent(key);
+            if (cached != null) {
+                return Mono.fromFuture(cached, true).flux();
+            }
+            return streams.computeIfAbsent(key, k -> {
+                StringBuilder text = new StringBuilder();
+                return geminiService.stream(prompt)
+                        .doOnNext(text::append)
+                        .doOnComplete(() -> {
+                            if (!text.toString().isBlank()) {
+                                insights.put(k, CompletableFuture.completedFuture(text.toString()));
+                            }
+                        })
+                        // After the cache put, so a request in between finds the cached text
+                        .doFinally(signal -> streams.remove(k))
+                        .replay()
+                        .refCount();
+            });
+        });
+    }
+
+    /**
+     * Text shown to the user when an insight could not be generated.
+     */
+    public String failureMessage(Throwable e) {
+        return geminiService.toUserMessage(e);
+    }
+
+    private CompletableFuture<String> lookup(String prompt) {
+        return insights.get(hash(prompt), (key, executor) -> geminiService.generate(prompt).toFuture());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AsyncCache<Object, Object> asObjectCache(AsyncCache<String, String> cache) {
+        return (AsyncCache<Object, Object>) (AsyncCache<?, ?>) cache;
+    }
+
+    private String hash(String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
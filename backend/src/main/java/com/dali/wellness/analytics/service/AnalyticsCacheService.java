@@ -0,0 +1,127 @@
+package com.dali.wellness.analytics.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Analytics Cache Service
+ * ───────────────────────
+ * Invalidation and statistics for the analytics read-through caches.
+ *
+ *   • Habit / habit log writes → weeklyHabitReport, dashboard
+ *   • Health metric writes     → healthTrend, dashboard
+ *   • Task writes              → dashboard
+ *   • Midnight                 → everything ("today" moves)
+ *
+ * Eviction runs AFTER_COMMIT, first among the AFTER_COMMIT listeners so
+ * those recomputing reports (DashboardStreamService) see fresh data.
+ *
+ * A reader that started before the commit can still finish after the
+ * eviction and put its older result. Every eviction therefore also bumps
+ * the cache's generation, which is part of each key ({@link #KEY}): such a
+ * late put lands under a key no later read asks for, and ages out by size
+ * or expireAfterWrite.
+ */
+@Service
+public class AnalyticsCacheService {
+
+    public static final String WEEKLY_HABIT_REPORT = "weeklyHabitReport";
+    public static final String HEALTH_TREND = "healthTrend";
+    public static final String DASHBOARD = "dashboard";
+
+    /**
+     * Key expression for the analytics caches: (generation, method arguments).
+     */
+    public static final String KEY = "@analyticsCacheService.key(#root.caches[0].name, #root.args)";
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsCacheService.class);
+
+    private final CacheManager cacheManager;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public AnalyticsCacheService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTrackingDataChanged(TrackingDataChangedEvent event) {
+        switch (event.kind()) {
+            case HABIT, HABIT_LOG -> clear(WEEKLY_HABIT_REPORT);
+            case HEALTH_METRIC -> clear(HEALTH_TREND);
+        }
+        clear(DASHBOARD);
+    }
+
+    /**
+     * Day rollover: every cached report is relative to "today".
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void clearAtMidnight() {
+        logger.info("Midnight rollover: clearing analytics caches");
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    /**
+     * Cache key of a call: the cache's current generation, then the arguments.
+     */
+    public Object key(String cacheName, Object[] args) {
+        Object[] elements = new Object[args.length + 1];
+        elements[0] = generation(cacheName).get();
+        System.arraycopy(args, 0, elements, 1, args.length);
+        return new SimpleKey(elements);
+    }
+
+    /**
+     * Hit/miss/eviction counters per cache, for sizing.
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats s = nativeCache.stats();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("size", nativeCache.estimatedSize());
+                entry.put("hitCount", s.hitCount());
+                entry.put("missCount", s.missCount());
+                entry.put("hitRate", Math.round(s.hitRate() * 100.0) / 100.0);
+                entry.put("evictionCount", s.evictionCount());
+                stats.put(name, entry);
+            }
+        }
+        return stats;
+    }
+
+    private AtomicLong generation(String name) {
+        return generations.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    private void clear(String name) {
+        // Bump first: reads from here on use new keys
+        generation(name).incrementAndGet();
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
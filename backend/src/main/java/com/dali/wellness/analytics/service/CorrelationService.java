@@ -0,0 +1,446 @@
+package com.dali.wellness.analytics.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dali.wellness.analytics.dto.HabitCorrelation;
+import com.dali.wellness.analytics.entity.CorrelationMetricDay;
+import com.dali.wellness.analytics.entity.HabitMetricCorrelation;
+import com.dali.wellness.analytics.entity.HabitMetricCorrelation.Metric;
+import com.dali.wellness.analytics.repository.CorrelationMetricDayRepository;
+import com.dali.wellness.analytics.repository.HabitMetricCorrelationRepository;
+import com.dali.wellness.tracking.dto.DailyHealthAverages;
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
+import com.dali.wellness.tracking.event.HabitDaysChangedEvent;
+import com.dali.wellness.tracking.event.HabitRollupRebuiltEvent;
+import com.dali.wellness.tracking.event.HealthMetricDaysChangedEvent;
+import com.dali.wellness.tracking.repository.HabitDailyRollupRepository;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupRepository;
+
+/**
+ * Correlation Service
+ * ───────────────────
+ * Correlates daily habits with sleep, mood, stress and energy, same day
+ * and up to {@value #MAX_LAG_DAYS} days later.
+ *
+ * habit_metric_correlation holds running statistics per habit × metric × lag
+ * (see {@link HabitMetricCorrelation}); they are updated in the writing
+ * transaction, so reading correlations never rescans history:
+ *
+ *   • A habit-day gets its first log / loses its last one (HabitDaysChangedEvent)
+ *       → at most 16 observations of that habit change x (0 ↔ 1)
+ *   • The window follows the habit's first logged day: a backdated first log
+ *     adds the days before it, deleting the earliest logs removes them again
+ *     (the same window rebuild() uses)
+ *   • A day's health readings change (HealthMetricDaysChangedEvent)
+ *       → the day's old averages are removed and the new ones (read from
+ *         the DAY tier of health_metric_rollup) added, for every habit and lag
+ *   • Habit rollup rebuilt, or first start with data → full rebuild
+ */
+@Service
+public class CorrelationService {
+
+    public static final int MAX_LAG_DAYS = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(CorrelationService.class);
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final HabitMetricCorrelationRepository correlationRepository;
+    private final CorrelationMetricDayRepository metricDayRepository;
+    private final HealthMetricRollupRepository metricRollupRepository;
+    private final HabitLogRepository habitLogRepository;
+    private final HabitDailyRollupRepository rollupRepository;
+
+    public CorrelationService(HabitMetricCorrelationRepository correlationRepository,
+                              CorrelationMetricDayRepository metricDayRepository,
+                              HealthMetricRollupRepository metricRollupRepository,
+                              HabitLogRepository habitLogRepository,
+                              HabitDailyRollupRepository rollupRepository) {
+        this.correlationRepository = correlationRepository;
+        this.metricDayRepository = metricDayRepository;
+        this.metricRollupRepository = metricRollupRepository;
+        this.habitLogRepository = habitLogRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Correlations of every habit with at least minSamples counted days.
+     * One statement; O(habits) rows.
+     */
+    @Transactional(readOnly = true)
+    public List<HabitCorrelation> getCorrelations(int minSamples) {
+        List<Object[]> rows = correlationRepository.findWithHabitName(Math.max(2, minSamples));
+        List<HabitCorrelation> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            HabitMetricCorrelation c = (HabitMetricCorrelation) row[0];
+            result.add(new HabitCorrelation(
+                    c.getHabitId(),
+                    (String) row[1],
+                    c.getMetric(),
+                    c.getLagDays(),
+                    c.getN(),
+                    c.daysDone(),
+                    round(c.coefficient(), 1000.0),
+                    round(c.meanWhenDone(), 100.0),
+                    round(c.meanWhenSkipped(), 100.0)));
+        }
+        return result;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Habit side
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onHabitDaysChanged(HabitDaysChangedEvent event) {
+        Map<Long, List<LocalDate>> started = byHabit(event.started());
+        Map<Long, List<LocalDate>> ended = byHabit(event.ended());
+
+        Set<Long> habitIds = new TreeSet<>(started.keySet());
+        habitIds.addAll(ended.keySet());
+        for (Long habitId : habitIds) {
+            applyHabitDays(habitId,
+                    started.getOrDefault(habitId, List.of()),
+                    ended.getOrDefault(habitId, List.of()));
+        }
+    }
+
+    private void applyHabitDays(Long habitId, List<LocalDate> started, List<LocalDate> ended) {
+        List<HabitMetricCorrelation> rows = correlationRepository.findByHabitIdForUpdate(habitId);
+        LocalDate windowStart = rows.isEmpty() ? null : rows.get(0).getWindowStart();
+        if (windowStart == null && started.isEmpty()) {
+            return;
+        }
+
+        HabitMetricCorrelation[][] grid;
+        List<LocalDate> flipsToDone = new ArrayList<>(started);
+        LocalDate earliest = started.isEmpty() ? null : Collections.min(started);
+
+        if (earliest != null && (windowStart == null || earliest.isBefore(windowStart))) {
+            // Days before the old window had no logs: count them now, x = 1 only on new log days
+            grid = rows.isEmpty() ? newGrid(habitId, earliest) : grid(rows);
+            for (HabitMetricCorrelation[] byLag : grid) {
+                for (HabitMetricCorrelation row : byLag) {
+                    row.setWindowStart(earliest);
+                }
+            }
+            countWindow(grid, earliest, windowStart, new HashSet<>(started), true);
+            LocalDate oldStart = windowStart;
+            flipsToDone.removeIf(day -> oldStart == null || day.isBefore(oldStart));
+            if (rows.isEmpty()) {
+                List<HabitMetricCorrelation> created = new ArrayList<>();
+                for (HabitMetricCorrelation[] byLag : grid) {
+                    Collections.addAll(created, byLag);
+                }
+                correlationRepository.saveAll(created);
+            }
+        } else {
+            grid = grid(rows);
+        }
+
+        List<LocalDate> all = new ArrayList<>(flipsToDone);
+        all.addAll(ended);
+        if (all.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, CorrelationMetricDay> metricDays = metricDaysBetween(
+                Collections.min(all), Collections.max(all).plusDays(MAX_LAG_DAYS));
+        for (LocalDate day : flipsToDone) {
+            flip(grid, metricDays, day, 0, 1);
+        }
+        for (LocalDate day : ended) {
+            flip(grid, metricDays, day, 1, 0);
+        }
+        if (!ended.isEmpty()) {
+            shrinkWindow(habitId, grid);
+        }
+    }
+
+    /**
+     * After logs were removed: move window_start up to the habit's first
+     * remaining log day. The days dropped from the front all have x = 0 by
+     * now. Without any log left, the habit's rows are deleted.
+     */
+    private void shrinkWindow(Long habitId, HabitMetricCorrelation[][] grid) {
+        LocalDate windowStart = grid[0][0].getWindowStart();
+        LocalDate firstDay = rollupRepository.findFirstDay(habitId);
+        if (firstDay == null) {
+            List<HabitMetricCorrelation> rows = new ArrayList<>();
+            for (HabitMetricCorrelation[] byLag : grid) {
+                Collections.addAll(rows, byLag);
+            }
+            correlationRepository.deleteAll(rows);
+            return;
+        }
+        if (!firstDay.isAfter(windowStart)) {
+            return;
+        }
+        countWindow(grid, windowStart, firstDay, Set.of(), false);
+        for (HabitMetricCorrelation[] byLag : grid) {
+            for (HabitMetricCorrelation row : byLag) {
+                row.setWindowStart(firstDay);
+            }
+        }
+    }
+
+    /**
+     * Add (or remove) the observations for days [from, until) (until null: no upper bound).
+     */
+    private void countWindow(HabitMetricCorrelation[][] grid, LocalDate from, LocalDate until,
+                             Set<LocalDate> done, boolean add) {
+        List<CorrelationMetricDay> days = until != null
+                ? metricDayRepository.findBetween(from, until.minusDays(1).plusDays(MAX_LAG_DAYS))
+                : metricDayRepository.findByDayGreaterThanEqual(from);
+        for (CorrelationMetricDay metricDay : days) {
+            for (int lag = 0; lag <= MAX_LAG_DAYS; lag++) {
+                LocalDate day = metricDay.getDay().minusDays(lag);
+                if (day.isBefore(from) || (until != null && !day.isBefore(until))) {
+                    continue;
+                }
+                double x = done.contains(day) ? 1 : 0;
+                for (Metric metric : METRICS) {
+                    Double y = metric.valueOf(metricDay);
+                    if (y == null) {
+                        continue;
+                    }
+                    if (add) {
+                        grid[metric.ordinal()][lag].add(x, y);
+                    } else {
+                        grid[metric.ordinal()][lag].remove(x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    private void flip(HabitMetricCorrelation[][] grid, Map<LocalDate, CorrelationMetricDay> metricDays,
+                      LocalDate day, double from, double to) {
+        for (int lag = 0; lag <= MAX_LAG_DAYS; lag++) {
+            CorrelationMetricDay metricDay = metricDays.get(day.plusDays(lag));
+            if (metricDay == null) {
+                continue;
+            }
+            for (Metric metric : METRICS) {
+                Double y = metric.valueOf(metricDay);
+                if (y != null) {
+                    HabitMetricCorrelation row = grid[metric.ordinal()][lag];
+                    row.remove(from, y);
+                    row.add(to, y);
+                }
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Health metric side
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onHealthMetricDaysChanged(HealthMetricDaysChangedEvent event) {
+        if (event.days().isEmpty()) {
+            return;
+        }
+        Set<LocalDate> days = new TreeSet<>(event.days());
+        LocalDate from = Collections.min(days);
+        LocalDate to = Collections.max(days);
+
+        Map<LocalDate, DailyHealthAverages> current = new HashMap<>();
+        for (DailyHealthAverages averages : metricRollupRepository.findDailyAverages(from, to.plusDays(1))) {
+            if (days.contains(averages.date())) {
+                current.put(averages.date(), averages);
+            }
+        }
+        Map<LocalDate, CorrelationMetricDay> counted = new HashMap<>();
+        metricDayRepository.findAllById(days).forEach(d -> counted.put(d.getDay(), d));
+
+        Map<Long, HabitMetricCorrelation[][]> grids = new LinkedHashMap<>();
+        Map<Long, List<HabitMetricCorrelation>> rowsByHabit = new LinkedHashMap<>();
+        for (HabitMetricCorrelation row : correlationRepository.findAllForUpdate()) {
+            rowsByHabit.computeIfAbsent(row.getHabitId(), k -> new ArrayList<>()).add(row);
+        }
+        rowsByHabit.forEach((habitId, rows) -> grids.put(habitId, grid(rows)));
+
+        Set<HabitLogDay> logged = grids.isEmpty() ? Set.of()
+                : new HashSet<>(habitLogRepository.findDistinctLogDaysInRange(from.minusDays(MAX_LAG_DAYS), to));
+
+        for (LocalDate day : days) {
+            CorrelationMetricDay before = counted.get(day);
+            DailyHealthAverages after = current.get(day);
+            for (Metric metric : METRICS) {
+                Double oldY = before != null ? metric.valueOf(before) : null;
+                Double newY = after != null ? metric.valueOf(after) : null;
+                if (!Objects.equals(oldY, newY)) {
+                    applyMetricChange(grids, logged, day, metric, oldY, newY);
+                }
+            }
+            if (after != null) {
+                metricDayRepository.save(new CorrelationMetricDay(after));
+            } else if (before != null) {
+                metricDayRepository.delete(before);
+            }
+        }
+    }
+
+    private void applyMetricChange(Map<Long, HabitMetricCorrelation[][]> grids, Set<HabitLogDay> logged,
+                                   LocalDate metricDay, Metric metric, Double oldY, Double newY) {
+        grids.forEach((habitId, grid) -> {
+            HabitMetricCorrelation[] byLag = grid[metric.ordinal()];
+            for (int lag = 0; lag <= MAX_LAG_DAYS; lag++) {
+                LocalDate day = metricDay.minusDays(lag);
+                HabitMetricCorrelation row = byLag[lag];
+                if (day.isBefore(row.getWindowStart())) {
+                    continue;
+                }
+                double x = logged.contains(new HabitLogDay(habitId, day)) ? 1 : 0;
+                if (oldY != null) {
+                    row.remove(x, oldY);
+                }
+                if (newY != null) {
+                    row.add(x, newY);
+                }
+            }
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Full rebuild
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * Recompute every statistic from habit_daily_rollup and the DAY tier of health_metric_rollup.
+     * @return number of habits with statistics
+     */
+    @Transactional
+    public int rebuild() {
+        correlationRepository.deleteAllRows();
+        metricDayRepository.deleteAllRows();
+
+        List<CorrelationMetricDay> metricDays = new ArrayList<>();
+        for (DailyHealthAverages averages : metricRollupRepository.findAllDailyAverages()) {
+            metricDays.add(new CorrelationMetricDay(averages));
+        }
+        metricDayRepository.saveAll(metricDays);
+
+        Map<Long, Set<LocalDate>> loggedByHabit = new LinkedHashMap<>();
+        Map<Long, LocalDate> firstDay = new HashMap<>();
+        for (HabitLogDay day : rollupRepository.findAllDays()) {
+            loggedByHabit.computeIfAbsent(day.habitId(), k -> new HashSet<>()).add(day.logDate());
+            firstDay.putIfAbsent(day.habitId(), day.logDate());
+        }
+
+        List<HabitMetricCorrelation> rows = new ArrayList<>();
+        loggedByHabit.forEach((habitId, logged) -> {
+            LocalDate start = firstDay.get(habitId);
+            HabitMetricCorrelation[][] grid = newGrid(habitId, start);
+            for (CorrelationMetricDay metricDay : metricDays) {
+                for (int lag = 0; lag <= MAX_LAG_DAYS; lag++) {
+                    LocalDate day = metricDay.getDay().minusDays(lag);
+                    if (day.isBefore(start)) {
+                        continue;
+                    }
+                    double x = logged.contains(day) ? 1 : 0;
+                    for (Metric metric : METRICS) {
+                        Double y = metric.valueOf(metricDay);
+                        if (y != null) {
+                            grid[metric.ordinal()][lag].add(x, y);
+                        }
+                    }
+                }
+            }
+            for (HabitMetricCorrelation[] byLag : grid) {
+                Collections.addAll(rows, byLag);
+            }
+        });
+        correlationRepository.saveAll(rows);
+
+        logger.info("Rebuilt habit correlations: {} habits, {} metric days", loggedByHabit.size(), metricDays.size());
+        return loggedByHabit.size();
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRollupRebuilt(HabitRollupRebuiltEvent event) {
+        rebuild();
+    }
+
+    /**
+     * First start after correlations were introduced: backfill them
+     * so existing history is counted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        boolean habitsMissing = correlationRepository.count() == 0 && rollupRepository.count() > 0;
+        boolean daysMissing = metricDayRepository.count() == 0
+                && metricRollupRepository.countByResolution(Resolution.DAY) > 0;
+        if (habitsMissing || daysMissing) {
+            logger.info("Correlation statistics are empty but tracking data exists, backfilling...");
+            rebuild();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private HabitMetricCorrelation[][] newGrid(Long habitId, LocalDate windowStart) {
+        HabitMetricCorrelation[][] grid = new HabitMetricCorrelation[METRICS.length][MAX_LAG_DAYS + 1];
+        for (Metric metric : METRICS) {
+            for (int lag = 0; lag <= MAX_LAG_DAYS; lag++) {
+                grid[metric.ordinal()][lag] = new HabitMetricCorrelation(habitId, metric, lag, windowStart);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Index one habit's rows by [metric][lag].
+     */
+    private HabitMetricCorrelation[][] grid(List<HabitMetricCorrelation> rows) {
+        HabitMetricCorrelation[][] grid = newGrid(rows.get(0).getHabitId(), rows.get(0).getWindowStart());
+        for (HabitMetricCorrelation row : rows) {
+            grid[row.getMetric().ordinal()][row.getLagDays()] = row;
+        }
+        return grid;
+    }
+
+    private Map<LocalDate, CorrelationMetricDay> metricDaysBetween(LocalDate from, LocalDate to) {
+        Map<LocalDate, CorrelationMetricDay> days = new TreeMap<>();
+        metricDayRepository.findBetween(from, to).forEach(d -> days.put(d.getDay(), d));
+        return days;
+    }
+
+    private Map<Long, List<LocalDate>> byHabit(Collection<HabitLogDay> days) {
+        Map<Long, List<LocalDate>> result = new HashMap<>();
+        for (HabitLogDay day : days) {
+            result.computeIfAbsent(day.habitId(), k -> new ArrayList<>()).add(day.logDate());
+        }
+        return result;
+    }
+
+    private Double round(Double value, double scale) {
+        return value != null ? Math.round(value * scale) / scale : null;
+    }
+}
@@ -0,0 +1,326 @@
+package com.dali.wellness.analytics.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dali.wellness.analytics.AnalyticsService;
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dashboard Stream Service
+ * ────────────────────────
+ * Pushes the dashboard to SSE subscribers instead of having clients poll.
+ *
+ * After a tracking write commits, the dashboard is recomputed once and
+ * only its changed sections are sent to every subscriber:
+ *
+ *   event: snapshot   data: full Dashboard (on connect, or when too far behind)
+ *   event: delta      data: {"<section>": …} (changed Dashboard fields only)
+ *   : heartbeat       comment every analytics.stream.heartbeat (keeps proxies open)
+ *
+ * Event ids are "<boot>-<version>". A client reconnecting with
+ * Last-Event-ID gets the deltas it missed from the last
+ * analytics.stream.history versions, or a fresh snapshot.
+ *
+ * Recompute and catch-up run on one virtual thread, so versions are queued
+ * in order and writers never wait for them. Each subscriber has its own
+ * bounded queue and virtual thread doing the (blocking) writes, so a slow
+ * client only delays itself; one that falls analytics.stream.max-pending
+ * events behind is dropped and resumes via Last-Event-ID. With no
+ * subscribers nothing is computed; an idle subscriber costs only its
+ * emitter, a parked virtual thread and a heartbeat.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AnalyticsService analyticsService;
+    private final long timeoutMillis;
+    private final int historySize;
+    private final int maxPending;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService pusher =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("dashboard-stream").factory());
+    private final AtomicBoolean pushPending = new AtomicBoolean();
+
+    // Confined to the pusher thread
+    private Dashboard current;
+    private long version;
+    private final Deque<Delta> history = new ArrayDeque<>();
+
+    public DashboardStreamService(AnalyticsService analyticsService,
+                                  @Value("${analytics.stream.timeout:PT30M}") Duration timeout,
+                                  @Value("${analytics.stream.history:50}") int historySize,
+                                  @Value("${analytics.stream.max-pending:32}") int maxPending) {
+        this.analyticsService = analyticsService;
+        this.timeoutMillis = timeout.toMillis();
+        this.historySize = historySize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Open a stream. The first event is the missed deltas since
+     * lastEventId if still known, otherwise a snapshot.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        pusher.execute(() -> {
+            try {
+                Delta delta = refresh();
+                if (delta != null) {
+                    broadcast(delta);
+                }
+                catchUp(subscriber, lastEventId);
+                subscribers.add(subscriber);
+                subscriber.start();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Runs after AnalyticsCacheService has evicted the stale reports.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTrackingDataChanged(TrackingDataChangedEvent event) {
+        requestPush();
+    }
+
+    /**
+     * Day rollover: "today" and every window move (after the midnight cache clear).
+     */
+    @Scheduled(cron = "5 0 0 * * *")
+    public void pushAtMidnight() {
+        requestPush();
+    }
+
+    /**
+     * Also detects stalled clients: their queue fills up with heartbeats.
+     */
+    @Scheduled(fixedDelayString = "${analytics.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pusher.shutdownNow();
+        subscribers.forEach(Subscriber::drop);
+    }
+
+    /**
+     * Queue one recompute; writes arriving while it is queued share it.
+     */
+    private void requestPush() {
+        if (subscribers.isEmpty() || !pushPending.compareAndSet(false, true)) {
+            return;
+        }
+        pusher.execute(() -> {
+            pushPending.set(false);
+            try {
+                Delta delta = refresh();
+                if (delta != null) {
+                    broadcast(delta);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Dashboard stream refresh failed", e);
+            }
+        });
+    }
+
+    /**
+     * Recompute the dashboard; returns the new version's delta, or null if
+     * nothing changed.
+     */
+    private Delta refresh() {
+        Dashboard next = analyticsService.getDashboard();
+        if (current == null) {
+            current = next;
+            version = 1;
+            return null;
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "asOf", current.asOf(), next.asOf());
+        putIfChanged(changes, "today", current.today(), next.today());
+        putIfChanged(changes, "habitReport", current.habitReport(), next.habitReport());
+        putIfChanged(changes, "healthTrend", current.healthTrend(), next.healthTrend());
+        putIfChanged(changes, "tasks", current.tasks(), next.tasks());
+        current = next;
+        if (changes.isEmpty()) {
+            return null;
+        }
+        Delta delta = new Delta(++version, changes);
+        history.addLast(delta);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        return delta;
+    }
+
+    private void putIfChanged(Map<String, Object> changes, String section, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(section, after);
+        }
+    }
+
+    private void broadcast(Delta delta) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(deltaEvent(delta));
+        }
+    }
+
+    private void catchUp(Subscriber subscriber, String lastEventId) {
+        Long seen = parseVersion(lastEventId);
+        if (seen != null && seen == version) {
+            return;
+        }
+        if (seen != null && seen < version && !history.isEmpty() && history.getFirst().version() <= seen + 1) {
+            for (Delta delta : history) {
+                if (delta.version() > seen) {
+                    subscriber.offer(deltaEvent(delta));
+                }
+            }
+            return;
+        }
+        subscriber.offer(SseEmitter.event().id(eventId(version)).name("snapshot").data(current)
+                .reconnectTime(3000));
+    }
+
+    private SseEmitter.SseEventBuilder deltaEvent(Delta delta) {
+        return SseEmitter.event().id(eventId(delta.version())).name("delta").data(delta.changes());
+    }
+
+    private String eventId(long v) {
+        return BOOT_ID + "-" + v;
+    }
+
+    /**
+     * Version of a Last-Event-ID from this process, or null (absent,
+     * malformed or issued before a restart).
+     */
+    private Long parseVersion(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(BOOT_ID + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(BOOT_ID.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Delta(long version, Map<String, Object> changes) {
+    }
+
+    /**
+     * One client: events are queued by the pusher (never blocking it) and
+     * written by the client's own virtual thread.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(maxPending);
+        private final Thread sender = Thread.ofVirtual().name("dashboard-stream-client").unstarted(this::drain);
+        private volatile boolean open = true;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void start() {
+            sender.start();
+        }
+
+        /**
+         * Queue an event; a client already maxPending events behind is dropped.
+         */
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (open && !queue.offer(event)) {
+                logger.info("Dropping dashboard stream client {} events behind", maxPending);
+                drop();
+            }
+        }
+
+        /**
+         * End the stream from the server side. The sender completes the
+         * emitter (a write may hold its lock), so the caller never waits.
+         */
+        void drop() {
+            dropped = true;
+            close();
+        }
+
+        /**
+         * Stop sending (the emitter is done, or about to be).
+         */
+        void close() {
+            if (open) {
+                open = false;
+                subscribers.remove(this);
+                sender.interrupt();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (open) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                // Closed while waiting for the next event
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; completing triggers onCompletion → removed
+                close();
+                emitter.completeWithError(e);
+                return;
+            }
+            if (dropped) {
+                emitter.complete();
+            }
+        }
+    }
+}
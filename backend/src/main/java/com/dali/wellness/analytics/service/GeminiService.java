@@ -4,39 +4,66 @@ import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 /**
  * Service for interacting with the Google Gemini API.
  * Handles API calls, retries, and fallbacks for AI content generation.
+ *
+ * Metrics (tag model = model name from the URL):
+ *   wellness.gemini.requests    – timer per generate() call, tag outcome=success|error
+ *   wellness.gemini.overloaded  – 503 responses
+ *   wellness.gemini.retries     – retried attempts
+ *   wellness.gemini.fallbacks   – switches to the lighter fallback model
  */
 @Service
 public class GeminiService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
 
+    private static final String MISSING_KEY_MESSAGE = "Gemini API Key is missing.";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<JsonNode>> SSE_CHUNK =
+            new ParameterizedTypeReference<>() {};
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
     @Value("${gemini.api.url}")
     private String apiUrl;
 
+    /**
+     * Upper bound for one generate() call, including retries and the fallback model.
+     */
+    @Value("${gemini.client.total-timeout:PT60S}")
+    private Duration totalTimeout;
+
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
 
-    public GeminiService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public GeminiService(WebClient geminiWebClient, MeterRegistry meterRegistry) {
+        this.webClient = geminiWebClient;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -47,12 +74,26 @@ public class GeminiService {
      * @return The generated text response, or an error message if all attempts fail.
      */
     public String generateContent(String prompt) {
+        try {
+            return generate(prompt).block(); // Blocking here to keep the controller simple for now
+        } catch (Exception e) {
+            return toUserMessage(e);
+        }
+    }
+
+    /**
+     * Same retry/fallback pipeline as {@link #generateContent(String)}, but failures
+     * are signalled as errors instead of being turned into a message.
+     * Non-blocking: nothing runs until subscribed, and no thread waits
+     * during backoff. Lets callers (e.g. caches) tell a real answer from a failure.
+     */
+    public Mono<String> generate(String prompt) {
         if (apiKey == null || apiKey.isEmpty()) {
-            logger.error("Gemini API Key is missing.");
-            return "Error: Gemini API Key is missing.";
+            return Mono.error(new IllegalStateException(MISSING_KEY_MESSAGE));
         }
 
-        try {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
             return callGeminiApi(apiUrl, prompt)
                     .onErrorResume(e -> {
                         if (isOverloaded(e)) {
@@ -60,15 +101,63 @@ public class GeminiService {
                             // Simple string replacement to switch models. 
                             // Assumes apiUrl format: .../models/gemini-2.5-flash:generateContent
                             String fallbackUrl = apiUrl.replace("gemini-2.5-flash", "gemini-2.0-flash-lite");
+                            countFallback(fallbackUrl);
                             return callGeminiApi(fallbackUrl, prompt);
                         }
                         return Mono.error(e);
                     })
-                    .block(); // Blocking here to keep the controller simple for now
-        } catch (Exception e) {
-            logger.error("Error generating content", e);
-            return "I'm currently experiencing high traffic. Please try again in a moment.";
+                    .timeout(totalTimeout)
+                    .doOnSuccess(text -> sample.stop(requestTimer("success")))
+                    .doOnError(e -> sample.stop(requestTimer("error")));
+        });
+    }
+
+    /**
+     * Streams generated text chunk by chunk via streamGenerateContent (alt=sse).
+     * Demand is propagated to the HTTP connection, so a slow subscriber slows
+     * reading instead of buffering, and cancelling closes the upstream request.
+     * 503 retry and model fallback apply until the first chunk arrives.
+     * The whole stream is capped by gemini.client.total-timeout, like generate().
+     * A stream without any chunk fails with EmptyResponseException.
+     */
+    public Flux<String> stream(String prompt) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return Flux.error(new IllegalStateException(MISSING_KEY_MESSAGE));
+        }
+
+        String streamUrl = apiUrl.replace(":generateContent", ":streamGenerateContent");
+        return callGeminiStream(streamUrl, prompt)
+                .onErrorResume(e -> {
+                    if (isOverloaded(e)) {
+                        logger.warn("Primary model overloaded. Attempting streaming fallback to gemini-2.0-flash-lite...");
+                        String fallbackUrl = streamUrl.replace("gemini-2.5-flash", "gemini-2.0-flash-lite");
+                        countFallback(fallbackUrl);
+                        return callGeminiStream(fallbackUrl, prompt);
+                    }
+                    return Flux.error(e);
+                })
+                .switchIfEmpty(Flux.error(() -> new EmptyResponseException(null)))
+                // Flux.timeout would only bound the gap between chunks
+                .takeUntilOther(Mono.delay(totalTimeout).then(Mono.error(
+                        new TimeoutException("Gemini stream exceeded " + totalTimeout))));
+    }
+
+    /**
+     * Maps a failure from {@link #generate(String)} to the text shown to the user.
+     */
+    public String toUserMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null
+                ? e.getCause() : e;
+        if (cause instanceof IllegalStateException && MISSING_KEY_MESSAGE.equals(cause.getMessage())) {
+            logger.error("Gemini API Key is missing.");
+            return "Error: " + MISSING_KEY_MESSAGE;
+        }
+        if (cause instanceof EmptyResponseException) {
+            logger.warn(cause.getMessage());
+            return "No insight could be generated this time. Please try again later.";
         }
+        logger.error("Error generating content", cause);
+        return "I'm currently experiencing high traffic. Please try again in a moment.";
     }
 
     private Mono<String> callGeminiApi(String baseUrl, String prompt) {
@@ -82,11 +171,67 @@ public class GeminiService {
                 .retrieve()
                 .bodyToMono(JsonNode.class)
                 .map(this::extractText)
+                .doOnError(e -> countOverloaded(e, baseUrl))
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
+                        .filter(this::isOverloaded)
+                        .doBeforeRetry(signal -> countRetry(baseUrl))
+                        .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure()));
+    }
+
+    private Flux<String> callGeminiStream(String baseUrl, String prompt) {
+        String url = baseUrl + "?alt=sse&key=" + apiKey;
+        Map<String, Object> requestBody = createRequestBody(prompt);
+
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(SSE_CHUNK)
+                .mapNotNull(ServerSentEvent::data)
+                .mapNotNull(this::firstPartText)
+                .doOnError(e -> countOverloaded(e, baseUrl))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
                         .filter(this::isOverloaded)
+                        .doBeforeRetry(signal -> countRetry(baseUrl))
                         .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure()));
     }
 
+    private Timer requestTimer(String outcome) {
+        return Timer.builder("wellness.gemini.requests")
+                .description("Gemini generate() calls, retries and fallback included")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void countOverloaded(Throwable e, String url) {
+        if (isOverloaded(e)) {
+            meterRegistry.counter("wellness.gemini.overloaded", "model", modelOf(url)).increment();
+        }
+    }
+
+    private void countRetry(String url) {
+        meterRegistry.counter("wellness.gemini.retries", "model", modelOf(url)).increment();
+    }
+
+    private void countFallback(String url) {
+        meterRegistry.counter("wellness.gemini.fallbacks", "model", modelOf(url)).increment();
+    }
+
+    /**
+     * ".../models/gemini-2.5-flash:generateContent" → "gemini-2.5-flash"
+     */
+    private String modelOf(String url) {
+        int start = url.indexOf("/models/");
+        if (start < 0) {
+            return "unknown";
+        }
+        start += "/models/".length();
+        int end = url.indexOf(':', start);
+        return end > start ? url.substring(start, end) : url.substring(start);
+    }
+
     private boolean isOverloaded(Throwable e) {
         return e instanceof WebClientResponseException && 
                ((WebClientResponseException) e).getStatusCode().value() == 503;
@@ -104,17 +249,56 @@ public class GeminiService {
         return requestBody;
     }
 
+    /**
+     * Text of the first candidate. A response without text (no candidates,
+     * blocked prompt, empty parts) is an error, so it is neither shown as an
+     * answer nor cached.
+     */
     private String extractText(JsonNode root) {
+        String text = firstPartText(root);
+        if (text == null || text.isBlank()) {
+            throw new EmptyResponseException(emptyReason(root));
+        }
+        return text;
+    }
+
+    /**
+     * Why Gemini sent no text, if it said: promptFeedback.blockReason or the finishReason.
+     */
+    private String emptyReason(JsonNode root) {
+        if (root == null) {
+            return null;
+        }
+        String blockReason = root.path("promptFeedback").path("blockReason").asText(null);
+        return blockReason != null ? blockReason
+                : root.path("candidates").path(0).path("finishReason").asText(null);
+    }
+
+    /**
+     * Text of the first part, or null if there is none: stream chunks that
+     * only carry a finishReason or safety ratings must not become empty tokens.
+     */
+    private String firstPartText(JsonNode root) {
         if (root != null) {
             JsonNode candidates = root.path("candidates");
             if (candidates.isArray() && candidates.size() > 0) {
                 JsonNode firstCandidate = candidates.get(0);
                 JsonNode parts = firstCandidate.path("content").path("parts");
                 if (parts.isArray() && parts.size() > 0) {
-                    return parts.get(0).path("text").asText();
+                    String text = parts.get(0).path("text").asText(null);
+                    return text != null && !text.isEmpty() ? text : null;
                 }
             }
         }
-        return "No content generated.";
+        return null;
+    }
+
+    /**
+     * Gemini answered, but without any text.
+     */
+    public static class EmptyResponseException extends IllegalStateException {
+        public EmptyResponseException(String reason) {
+            super("Gemini returned no content" + (reason != null ? " (" + reason + ")" : ""));
+        }
     }
 }
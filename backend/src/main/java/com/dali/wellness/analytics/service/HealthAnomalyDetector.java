@@ -0,0 +1,209 @@
+package com.dali.wellness.analytics.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dali.wellness.analytics.entity.HealthAlert;
+import com.dali.wellness.analytics.entity.HealthAlert.Kind;
+import com.dali.wellness.analytics.repository.HealthAlertRepository;
+import com.dali.wellness.tracking.dto.HealthMetricRow;
+import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.event.HealthMetricRecordedEvent;
+import com.dali.wellness.tracking.repository.HealthMetricRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Health Anomaly Detector
+ * ───────────────────────
+ * Flags sudden sleep drops and stress spikes as readings are created.
+ *
+ * Per metric, an exponentially weighted mean and variance (EWMA, weight
+ * health.anomaly.alpha) summarise recent history. Each new reading costs
+ * O(1): its z-score against the running mean is checked, then it is folded
+ * into the state. No history is scanned.
+ *
+ *   SLEEP_DROP   – sleep hours  ≤ mean − threshold × σ
+ *   STRESS_SPIKE – stress level ≥ mean + threshold × σ
+ *
+ * σ has a floor per metric so a very steady history (σ ≈ 0) does not turn
+ * every small change into an alert. Alerts start after min-samples readings.
+ *
+ * State lives in memory. On startup it is rebuilt by replaying the newest
+ * health.anomaly.warmup readings (older ones have decayed to a negligible
+ * weight anyway). Readings are evaluated AFTER_COMMIT; backdated readings
+ * (older than the newest one seen) and edits are not evaluated.
+ */
+@Service
+public class HealthAnomalyDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthAnomalyDetector.class);
+
+    private final HealthAlertRepository alertRepository;
+    private final HealthMetricRepository healthMetricRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final double alpha;
+    private final double threshold;
+    private final int minSamples;
+    private final int warmup;
+
+    /**
+     * Guards state and lastRecordedAt (a lock rather than synchronized,
+     * so waiting virtual threads do not pin their carrier).
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Kind, Ewma> state = new EnumMap<>(Kind.class);
+    private LocalDateTime lastRecordedAt;
+
+    public HealthAnomalyDetector(HealthAlertRepository alertRepository,
+                                 HealthMetricRepository healthMetricRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${health.anomaly.alpha:0.1}") double alpha,
+                                 @Value("${health.anomaly.threshold:3.0}") double threshold,
+                                 @Value("${health.anomaly.min-samples:10}") int minSamples,
+                                 @Value("${health.anomaly.warmup:200}") int warmup) {
+        this.alertRepository = alertRepository;
+        this.healthMetricRepository = healthMetricRepository;
+        this.meterRegistry = meterRegistry;
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minSamples = minSamples;
+        this.warmup = warmup;
+        for (Kind kind : Kind.values()) {
+            state.put(kind, new Ewma());
+        }
+    }
+
+    /**
+     * Most recent alerts first.
+     */
+    public List<HealthAlert> getRecentAlerts(int limit) {
+        return alertRepository.findAllByOrderByIdDesc(Limit.of(limit));
+    }
+
+    /**
+     * Evaluate a committed new reading; alerts are stored in their own
+     * transaction (the reading's has already committed).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onReadingRecorded(HealthMetricRecordedEvent event) {
+        List<HealthAlert> alerts = evaluate(event.reading());
+        if (alerts.isEmpty()) {
+            return;
+        }
+        alertRepository.saveAll(alerts);
+        for (HealthAlert alert : alerts) {
+            meterRegistry.counter("wellness.health.alerts", "kind", alert.getKind().name()).increment();
+            logger.info("Health alert {}: {} (expected {}, z={})", alert.getKind(), alert.getValue(),
+                    Math.round(alert.getExpected() * 100.0) / 100.0,
+                    Math.round(alert.getDeviation() * 100.0) / 100.0);
+        }
+    }
+
+    /**
+     * Rebuild the state from the newest readings, without raising alerts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        List<HealthMetric> newest = healthMetricRepository.findPage(null, null, null, 0L, Limit.of(warmup));
+        lock.lock();
+        try {
+            for (int i = newest.size() - 1; i >= 0; i--) {
+                HealthMetric m = newest.get(i);
+                observe(Kind.SLEEP_DROP, m.getSleepHours());
+                observe(Kind.STRESS_SPIKE, m.getStressLevel());
+                lastRecordedAt = m.getRecordedAt();
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Health anomaly detector restored from {} readings", newest.size());
+    }
+
+    private List<HealthAlert> evaluate(HealthMetricRow reading) {
+        List<HealthAlert> alerts = new ArrayList<>(2);
+        lock.lock();
+        try {
+            if (lastRecordedAt != null && reading.recordedAt().isBefore(lastRecordedAt)) {
+                return alerts;
+            }
+            lastRecordedAt = reading.recordedAt();
+            check(Kind.SLEEP_DROP, reading, reading.sleepHours(), alerts);
+            check(Kind.STRESS_SPIKE, reading, reading.stressLevel(), alerts);
+        } finally {
+            lock.unlock();
+        }
+        return alerts;
+    }
+
+    private void check(Kind kind, HealthMetricRow reading, Number value, List<HealthAlert> alerts) {
+        if (value == null) {
+            return;
+        }
+        double x = value.doubleValue();
+        Ewma ewma = state.get(kind);
+        if (ewma.count >= minSamples) {
+            double z = (x - ewma.mean) / Math.max(Math.sqrt(ewma.variance), minStdDev(kind));
+            boolean anomalous = kind == Kind.SLEEP_DROP ? z <= -threshold : z >= threshold;
+            if (anomalous) {
+                alerts.add(new HealthAlert(kind, reading.id(), reading.recordedAt(), x, ewma.mean, z));
+            }
+        }
+        ewma.add(x, alpha);
+    }
+
+    private void observe(Kind kind, Number value) {
+        if (value != null) {
+            state.get(kind).add(value.doubleValue(), alpha);
+        }
+    }
+
+    /**
+     * Smallest σ used for a metric: half an hour of sleep, one stress point.
+     */
+    private double minStdDev(Kind kind) {
+        return switch (kind) {
+            case SLEEP_DROP -> 0.5;
+            case STRESS_SPIKE -> 1.0;
+        };
+    }
+
+    /**
+     * Exponentially weighted mean and variance of one metric.
+     */
+    private static final class Ewma {
+
+        long count;
+        double mean;
+        double variance;
+
+        void add(double x, double alpha) {
+            if (count++ == 0) {
+                mean = x;
+                return;
+            }
+            double diff = x - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.dali.wellness.analytics.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.analytics.dto.HabitWeeklyStats;
+import com.dali.wellness.analytics.dto.HealthTrend;
+import com.dali.wellness.analytics.dto.HealthTrendPoint;
+import com.dali.wellness.analytics.dto.HealthTrendPoint.MetricStats;
+import com.dali.wellness.analytics.dto.TodaySnapshot;
+
+/**
+ * Insight Prompt Builder
+ * ──────────────────────
+ * Compiles the dashboard into a compact, deterministic prompt for Gemini.
+ *
+ * Output layout (fixed order, one CSV row per habit / per day of the
+ * dashboard's daily trend, with that day's averages):
+ *
+ *   as_of=2025-12-04
+ *   today: habits_done=2/4 sleep=7.5 mood=8
+ *   health_avg_7d: n=9 sleep=7.1 mood=6.4 stress=4.2 energy=6
+ *   habits(name,category,target,done,rate,streak,best):
+ *   Morning Run,HEALTH,3,2,0.67,1,4
+ *   days(date,sleep,mood,stress,energy):
+ *   2025-12-04,8,9,2,9
+ *
+ * Same data → byte-identical prompt, so prompt-hash caching works.
+ * Rows are dropped (oldest days first, then last habits) once the
+ * estimated token count would exceed gemini.prompt.max-tokens.
+ */
+@Component
+public class InsightPromptBuilder {
+
+    private static final String INSTRUCTIONS =
+            "You are a supportive and knowledgeable wellness coach. "
+            + "Analyze the following weekly wellness data for a user and provide 3 concise, actionable insights "
+            + "or encouraging remarks to help them improve their habits and health. "
+            + "Keep the tone positive and motivating. Format the output as a simple list or paragraph.\n\n"
+            + "Data Summary (CSV sections, '-' = not recorded):\n";
+
+    private static final String NONE = "-";
+
+    /**
+     * Rough token estimate for English/CSV text.
+     */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final int maxTokens;
+
+    public InsightPromptBuilder(@Value("${gemini.prompt.max-tokens:800}") int maxTokens) {
+        this.maxTokens = maxTokens;
+    }
+
+    public String build(Dashboard dashboard) {
+        StringBuilder sb = new StringBuilder(INSTRUCTIONS);
+
+        TodaySnapshot today = dashboard.today();
+        HealthTrend trend = dashboard.healthTrend();
+
+        sb.append("as_of=").append(dashboard.asOf()).append('\n');
+        sb.append("today: habits_done=").append(today.habitsCompletedToday())
+                .append('/').append(today.habitsTotal())
+                .append(" sleep=").append(num(today.sleepLastNight()))
+                .append(" mood=").append(num(today.currentMood()))
+                .append('\n');
+        sb.append("health_avg_").append(dayCount(trend)).append("d: n=").append(trend.totalRecords())
+                .append(" sleep=").append(num(trend.avgSleepHours()))
+                .append(" mood=").append(num(trend.avgMoodScore()))
+                .append(" stress=").append(num(trend.avgStressLevel()))
+                .append(" energy=").append(num(trend.avgEnergyLevel()))
+                .append('\n');
+
+        List<String> habitRows = new ArrayList<>();
+        for (HabitWeeklyStats h : dashboard.habitReport().habits()) {
+            habitRows.add(String.join(",",
+                    text(h.habitName()),
+                    text(h.category()),
+                    String.valueOf(h.targetPerWeek()),
+                    String.valueOf(h.completedThisWeek()),
+                    num(h.completionRate()),
+                    String.valueOf(h.currentStreak()),
+                    String.valueOf(h.longestStreak())));
+        }
+
+        List<String> dayRows = new ArrayList<>();
+        for (HealthTrendPoint d : trend.series()) {
+            dayRows.add(String.join(",",
+                    d.start().toLocalDate().toString(),
+                    num(avg(d.sleepHours())),
+                    num(avg(d.moodScore())),
+                    num(avg(d.stressLevel())),
+                    num(avg(d.energyLevel()))));
+        }
+
+        // Fill the remaining budget: habits first, then days (newest first)
+        int budgetChars = maxTokens * CHARS_PER_TOKEN - sb.length();
+        budgetChars = appendSection(sb, "habits(name,category,target,done,rate,streak,best):", habitRows, budgetChars);
+        appendSection(sb, "days(date,sleep,mood,stress,energy):", dayRows, budgetChars);
+
+        return sb.toString();
+    }
+
+    private int appendSection(StringBuilder sb, String header, List<String> rows, int budgetChars) {
+        if (rows.isEmpty()) {
+            return budgetChars;
+        }
+        sb.append(header).append('\n');
+        budgetChars -= header.length() + 1;
+
+        int written = 0;
+        for (String row : rows) {
+            if (row.length() + 1 > budgetChars) {
+                break;
+            }
+            sb.append(row).append('\n');
+            budgetChars -= row.length() + 1;
+            written++;
+        }
+        if (written < rows.size()) {
+            String note = "(" + (rows.size() - written) + " more rows omitted)\n";
+            sb.append(note);
+            budgetChars -= note.length();
+        }
+        return budgetChars;
+    }
+
+    private long dayCount(HealthTrend trend) {
+        return trend.endDate().toEpochDay() - trend.startDate().toEpochDay() + 1;
+    }
+
+    private Double avg(MetricStats stats) {
+        return stats != null ? stats.avg() : null;
+    }
+
+    private String num(Number value) {
+        if (value == null) {
+            return NONE;
+        }
+        // At most 2 decimals, no trailing zeros: 7.50 → 7.5, 8.00 → 8
+        return BigDecimal.valueOf(value.doubleValue())
+                .setScale(2, RoundingMode.HALF_UP)
+                .stripTrailingZeros()
+                .toPlainString();
+    }
+
+    private String text(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        // Keep the row shape: no separators or line breaks inside a field
+        return value.replace(',', ' ').replace('\n', ' ').replace('\r', ' ').trim();
+    }
+}
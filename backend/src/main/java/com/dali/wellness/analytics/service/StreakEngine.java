@@ -0,0 +1,98 @@
+package com.dali.wellness.analytics.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.dali.wellness.analytics.dto.Streak;
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+
+/**
+ * Streak Engine
+ * ─────────────
+ * Computes current and longest streaks for every habit at once.
+ *
+ * All distinct logged days in the lookback window are loaded with ONE query,
+ * split per habit into sorted epoch-day arrays, and scanned in memory.
+ * Query count is constant regardless of the number of habits or streak length.
+ */
+@Service
+public class StreakEngine {
+
+    /**
+     * How far back streaks are tracked (matches the previous per-day loop limit).
+     */
+    public static final int LOOKBACK_DAYS = 365;
+
+    private final HabitLogRepository habitLogRepository;
+
+    public StreakEngine(HabitLogRepository habitLogRepository) {
+        this.habitLogRepository = habitLogRepository;
+    }
+
+    /**
+     * Streaks for all habits that have at least one log in the lookback window.
+     * Habits missing from the map have no streak ({@link Streak#NONE}).
+     */
+    public Map<Long, Streak> calculateStreaks(LocalDate today) {
+        List<HabitLogDay> days = habitLogRepository.findDistinctLogDaysInRange(
+                today.minusDays(LOOKBACK_DAYS - 1), today);
+
+        Map<Long, Streak> streaks = new HashMap<>();
+        int todayNumber = (int) today.toEpochDay();
+        int[] buffer = new int[Math.min(days.size(), LOOKBACK_DAYS)];
+
+        // Rows are ordered by habit then day: each habit is one contiguous run
+        int i = 0;
+        while (i < days.size()) {
+            Long habitId = days.get(i).habitId();
+            int n = 0;
+            while (i < days.size() && days.get(i).habitId().equals(habitId)) {
+                buffer[n++] = (int) days.get(i).logDate().toEpochDay();
+                i++;
+            }
+            streaks.put(habitId, compute(buffer, n, todayNumber));
+        }
+        return streaks;
+    }
+
+    /**
+     * Streak over a sorted, distinct array of epoch-day numbers.
+     */
+    public static Streak compute(int[] days, int today) {
+        return compute(days, days.length, today);
+    }
+
+    /**
+     * Streak over the first {@code length} entries of a sorted, distinct
+     * array of epoch-day numbers.
+     */
+    static Streak compute(int[] days, int length, int today) {
+        if (length == 0) {
+            return Streak.NONE;
+        }
+
+        int longest = 1;
+        int run = 1;
+        for (int k = 1; k < length; k++) {
+            run = days[k] == days[k - 1] + 1 ? run + 1 : 1;
+            if (run > longest) {
+                longest = run;
+            }
+        }
+
+        // Current streak only counts if the run reaches today
+        int current = 0;
+        if (days[length - 1] == today) {
+            current = 1;
+            for (int k = length - 1; k > 0 && days[k - 1] == days[k] - 1; k--) {
+                current++;
+            }
+        }
+        return new Streak(current, longest);
+    }
+}
@@ -0,0 +1,19 @@
+package com.dali.wellness.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Cache Configuration
+ * ───────────────────
+ * Enables Spring's cache abstraction and scheduled tasks.
+ *
+ * The Caffeine cache manager itself is auto-configured from
+ * spring.cache.* in application.properties (names, size bound, stats).
+ */
+@Configuration
+@EnableCaching
+@EnableScheduling
+public class CacheConfig {
+}
@@ -0,0 +1,51 @@
+package com.dali.wellness.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Gemini Client Configuration
+ * ───────────────────────────
+ * WebClient used by GeminiService, with hard limits so slow AI calls
+ * cannot pile up:
+ *   • max-connections      – at most N requests in flight to Gemini
+ *   • pending-acquire-max  – bounded wait queue; overflow fails fast
+ *   • pending-acquire-timeout – longest wait in that queue for a connection
+ *   • connect/response timeouts per HTTP attempt
+ */
+@Configuration
+public class GeminiClientConfig {
+
+    @Bean
+    public WebClient geminiWebClient(
+            WebClient.Builder builder,
+            @Value("${gemini.client.max-connections:20}") int maxConnections,
+            @Value("${gemini.client.pending-acquire-max:100}") int pendingAcquireMax,
+            @Value("${gemini.client.pending-acquire-timeout:PT10S}") Duration pendingAcquireTimeout,
+            @Value("${gemini.client.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${gemini.client.response-timeout:PT30S}") Duration responseTimeout) {
+
+        ConnectionProvider provider = ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
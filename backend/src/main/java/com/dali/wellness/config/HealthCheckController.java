@@ -3,24 +3,35 @@ package com.dali.wellness.config;
 import java.time.LocalDateTime;
 import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dali.wellness.integration.google.GoogleCalendarClient;
+import com.dali.wellness.integration.google.dto.CalendarClientStatus;
+
 /**
  * Health Check Controller
  * ───────────────────────
  * Simple endpoints to verify the application is running.
  *
  * Endpoints:
- *   GET /ping  – Returns "OK" (quick health check)
- *   GET /info  – Returns app info with timestamp
+ *   GET /ping             – Returns "OK" (quick health check)
+ *   GET /info             – Returns app info with timestamp
+ *   GET /health/calendar  – Google Calendar client state (503 when FAILED)
  */
 @RestController
 @RequestMapping("/api")
 public class HealthCheckController {
 
+    private final GoogleCalendarClient googleCalendarClient;
+
+    public HealthCheckController(GoogleCalendarClient googleCalendarClient) {
+        this.googleCalendarClient = googleCalendarClient;
+    }
+
     /**
      * Simple health check endpoint.
      * Use this to verify the app is up.
@@ -43,7 +54,21 @@ public class HealthCheckController {
                 "application", "Life Analytics 2.0",
                 "status", "running",
                 "timestamp", LocalDateTime.now().toString(),
-                "owner", "Dali"
+                "owner", "Dali",
+                "calendar", googleCalendarClient.getStatus().state()
         ));
     }
+
+    /**
+     * Google Calendar client state: NOT_CONFIGURED (no credentials.json),
+     * INITIALIZING (startup / authorization running), READY or FAILED.
+     *
+     * curl http://localhost:8080/api/health/calendar
+     */
+    @GetMapping("/health/calendar")
+    public ResponseEntity<CalendarClientStatus> calendarHealth() {
+        CalendarClientStatus status = googleCalendarClient.getStatus();
+        return ResponseEntity.status(status.state() == GoogleCalendarClient.State.FAILED
+                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).body(status);
+    }
 }
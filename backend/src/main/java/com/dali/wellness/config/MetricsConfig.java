@@ -0,0 +1,39 @@
+package com.dali.wellness.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics Configuration
+ * ─────────────────────
+ * Application metrics on top of Actuator/Micrometer (scraped at /actuator/prometheus):
+ *   • wellness.db.statements  – SQL statements per /api request (StatementMetricsFilter)
+ *                               also checked against @QueryBudget (QueryBudgetAdvice)
+ *   • wellness.analytics, wellness.calendar – @Timed service methods
+ *   • wellness.gemini.*       – Gemini latency, 503s, retries, fallbacks (GeminiService)
+ *
+ * HTTP, JVM, Hikari pool and Caffeine cache metrics come from Actuator itself.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public StatementMetricsFilter statementMetricsFilter(StatementCounter statementCounter,
+                                                         MeterRegistry meterRegistry) {
+        return new StatementMetricsFilter(statementCounter, meterRegistry);
+    }
+}
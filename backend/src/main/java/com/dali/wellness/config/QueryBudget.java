@@ -0,0 +1,29 @@
+package com.dali.wellness.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Query Budget
+ * ────────────
+ * Maximum number of SQL statements an endpoint may run before its response
+ * body is written (checked by {@link QueryBudgetAdvice}). On a controller
+ * class it applies to every method without its own annotation.
+ *
+ * Endpoints without the annotation get query.budget.default.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /**
+     * No limit: bulk endpoints whose statement count grows with the input.
+     */
+    int UNLIMITED = -1;
+
+    int value();
+}
@@ -0,0 +1,91 @@
+package com.dali.wellness.config;
+
+import java.lang.reflect.Method;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Query Budget Advice
+ * ───────────────────
+ * Checks the SQL statements counted so far for the request (see
+ * {@link StatementCounter}) against the endpoint's {@link QueryBudget}
+ * just before the response body is written, so a FAIL can still turn
+ * into a 500 and the count can still go out as a header.
+ *
+ *   query.budget.mode=LOG   – warn and continue (default)
+ *   query.budget.mode=FAIL  – throw {@link QueryBudgetExceededException}
+ *   query.budget.header     – add X-Query-Count (dev profile)
+ *
+ * Statements run while the body is serialized (lazy loading) and async
+ * endpoints, whose body is written on another thread, are not covered.
+ */
+@ControllerAdvice
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    public enum Mode { LOG, FAIL }
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+
+    private final StatementCounter statementCounter;
+    private final Mode mode;
+    private final int defaultBudget;
+    private final boolean header;
+
+    public QueryBudgetAdvice(StatementCounter statementCounter,
+                             @Value("${query.budget.mode:LOG}") Mode mode,
+                             @Value("${query.budget.default:50}") int defaultBudget,
+                             @Value("${query.budget.header:false}") boolean header) {
+        this.statementCounter = statementCounter;
+        this.mode = mode;
+        this.defaultBudget = defaultBudget;
+        this.header = header;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getMethod() != null;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!statementCounter.active()) {
+            return body;
+        }
+        int statements = statementCounter.current();
+        if (header) {
+            response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(statements));
+        }
+
+        int budget = budgetOf(returnType.getMethod());
+        if (budget != QueryBudget.UNLIMITED && statements > budget) {
+            String endpoint = request.getMethod() + " " + request.getURI().getPath();
+            if (mode == Mode.FAIL) {
+                throw new QueryBudgetExceededException(endpoint, statements, budget);
+            }
+            logger.warn("Query budget exceeded for {}: {} statements (budget {})", endpoint, statements, budget);
+        }
+        return body;
+    }
+
+    private int budgetOf(Method method) {
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+}
@@ -0,0 +1,12 @@
+package com.dali.wellness.config;
+
+/**
+ * Thrown in FAIL mode when an endpoint runs more SQL statements
+ * than its {@link QueryBudget}. Surfaces as a 500 response.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String endpoint, int statements, int budget) {
+        super("Query budget exceeded for " + endpoint + ": " + statements + " statements (budget " + budget + ")");
+    }
+}
@@ -0,0 +1,55 @@
+package com.dali.wellness.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Statement Counter
+ * ─────────────────
+ * Counts the SQL statements Hibernate prepares on the current thread
+ * between start() and stop(). Registered as Hibernate's StatementInspector
+ * (see MetricsConfig); the SQL itself is passed through unchanged.
+ *
+ * Only Hibernate statements are seen: JdbcTemplate batches (bulk ingestion,
+ * rollup upserts) and work on other threads (async endpoints) are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Whether a scope is open on the current thread.
+     */
+    public boolean active() {
+        return COUNT.get() != null;
+    }
+
+    /**
+     * Statements so far in the current scope (0 outside a scope).
+     */
+    public int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * End the current scope and return its statement count.
+     */
+    public int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
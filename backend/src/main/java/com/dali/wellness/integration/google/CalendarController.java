@@ -1,13 +1,28 @@
 package com.dali.wellness.integration.google;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dali.wellness.config.QueryBudget;
+import com.dali.wellness.integration.google.dto.CalendarPullResult;
+import com.dali.wellness.integration.google.dto.CalendarSyncEnqueueResult;
+import com.dali.wellness.integration.google.dto.DailyCalendarLoad;
+import com.dali.wellness.integration.google.entity.CalendarEvent;
+import com.dali.wellness.integration.google.entity.CalendarSyncItem;
+import com.dali.wellness.integration.google.entity.CalendarSyncState;
 import com.dali.wellness.tracking.entity.Task;
 import com.dali.wellness.tracking.service.TaskService;
 
@@ -16,37 +31,109 @@ import com.dali.wellness.tracking.service.TaskService;
 public class CalendarController {
 
     private final GoogleCalendarService googleCalendarService;
+    private final CalendarSyncService calendarSyncService;
+    private final CalendarMirrorService calendarMirrorService;
     private final TaskService taskService;
 
-    public CalendarController(GoogleCalendarService googleCalendarService, TaskService taskService) {
+    public CalendarController(GoogleCalendarService googleCalendarService,
+                              CalendarSyncService calendarSyncService,
+                              CalendarMirrorService calendarMirrorService, TaskService taskService) {
         this.googleCalendarService = googleCalendarService;
+        this.calendarSyncService = calendarSyncService;
+        this.calendarMirrorService = calendarMirrorService;
         this.taskService = taskService;
     }
 
     @PostMapping("/sync-task/{taskId}")
-    public String syncTaskToCalendar(@PathVariable Long taskId) {
-        // Fetch task
-        Task task = taskService.getAllTasks().stream()
-                .filter(t -> t.getId().equals(taskId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    public ResponseEntity<String> syncTaskToCalendar(@PathVariable Long taskId) {
+        // Fetch task (primary key lookup)
+        Task task = taskService.getTaskById(taskId).orElse(null);
+        if (task == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Task not found");
+        }
 
         if (task.getDeadline() == null) {
-            return "Task has no deadline";
+            return ResponseEntity.ok("Task has no deadline");
         }
 
         // Create event (1 hour duration by default for tasks)
         LocalDateTime start = task.getDeadline().minusHours(1);
         LocalDateTime end = task.getDeadline();
 
-        return googleCalendarService.createEvent(
+        return ResponseEntity.ok(googleCalendarService.createEvent(
                 task.getTitle(),
                 task.getDescription(),
                 start,
                 end
-        );
+        ));
     }
     
+    /**
+     * Queue all open tasks with a deadline; the sync worker sends them
+     * to the calendar in batches.
+     */
+    @PostMapping("/sync-pending")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<CalendarSyncEnqueueResult> syncPendingTasks() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(calendarSyncService.enqueuePending());
+    }
+
+    @GetMapping("/sync-status")
+    public Map<String, Long> getSyncStatus() {
+        return calendarSyncService.getQueueStats();
+    }
+
+    @GetMapping("/sync-status/{taskId}")
+    public ResponseEntity<CalendarSyncItem> getTaskSyncStatus(@PathVariable Long taskId) {
+        return calendarSyncService.getItemForTask(taskId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Pull calendar changes into the local mirror now
+     * (incremental once a sync token exists). 409 if a pull is running.
+     */
+    @PostMapping("/pull")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<CalendarPullResult> pullEvents() {
+        return calendarMirrorService.pull()
+                .map(result -> result.error() == null
+                        ? ResponseEntity.ok(result)
+                        : ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(result))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/pull-status")
+    public ResponseEntity<CalendarSyncState> getPullStatus() {
+        return calendarMirrorService.getSyncState()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Mirrored events overlapping [from, to] (no call to Google).
+     */
+    @GetMapping("/events")
+    public List<CalendarEvent> getEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return calendarMirrorService.getEvents(from, to);
+    }
+
+    /**
+     * Events and busy minutes per day, for comparing busy days with mood and sleep.
+     * 400 if to is before from or the span exceeds calendar.load.max-days.
+     */
+    @GetMapping("/daily-load")
+    public ResponseEntity<List<DailyCalendarLoad>> getDailyLoad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return calendarMirrorService.getDailyLoad(from, to)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
     @GetMapping("/test-auth")
     public String testAuth() {
         try {
@@ -0,0 +1,228 @@
+package com.dali.wellness.integration.google;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dali.wellness.integration.google.GoogleCalendarService.SyncTokenExpiredException;
+import com.dali.wellness.integration.google.dto.CalendarEventChange;
+import com.dali.wellness.integration.google.dto.CalendarPullResult;
+import com.dali.wellness.integration.google.dto.DailyCalendarLoad;
+import com.dali.wellness.integration.google.entity.CalendarEvent;
+import com.dali.wellness.integration.google.entity.CalendarSyncState;
+import com.dali.wellness.integration.google.repository.CalendarEventRepository;
+import com.dali.wellness.integration.google.repository.CalendarSyncStateRepository;
+
+/**
+ * Calendar Mirror Service
+ * ───────────────────────
+ * Keeps calendar_event in step with Google Calendar so analytics can read
+ * events locally instead of calling Google.
+ *
+ *   First pull     – full listing, ends with a nextSyncToken
+ *   Later pulls    – events.list(syncToken): only events changed since then
+ *   Token expired  – Google answers 410; the token is dropped and a full sync runs
+ *
+ * Each page is applied in its own transaction (upsert by event id,
+ * cancelled events deleted). The syncToken is stored only after the last
+ * page, so an interrupted pull simply repeats. After a full sync, rows the
+ * listing did not touch (synced_at older than the pull) are removed.
+ */
+@Service
+public class CalendarMirrorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarMirrorService.class);
+
+    private final GoogleCalendarService googleCalendarService;
+    private final CalendarEventRepository eventRepository;
+    private final CalendarSyncStateRepository stateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean pulling = new AtomicBoolean();
+
+    /**
+     * Scheduled pulls are off by default: they need authorized credentials.
+     */
+    @Value("${calendar.pull.enabled:false}")
+    private boolean scheduledPullEnabled;
+
+    /**
+     * Longest [from, to] span getDailyLoad accepts (one row per day).
+     */
+    @Value("${calendar.load.max-days:366}")
+    private int maxLoadDays;
+
+    public CalendarMirrorService(GoogleCalendarService googleCalendarService,
+                                 CalendarEventRepository eventRepository,
+                                 CalendarSyncStateRepository stateRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.googleCalendarService = googleCalendarService;
+        this.eventRepository = eventRepository;
+        this.stateRepository = stateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.pull.poll-interval:PT5M}")
+    public void scheduledPull() {
+        if (scheduledPullEnabled) {
+            pull();
+        }
+    }
+
+    /**
+     * Pull changes from Google into the mirror.
+     *
+     * @return The result, or empty if a pull is already running.
+     */
+    public Optional<CalendarPullResult> pull() {
+        if (!pulling.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(run());
+        } finally {
+            pulling.set(false);
+        }
+    }
+
+    /**
+     * Pull progress of the mirrored calendar (empty before the first pull).
+     */
+    public Optional<CalendarSyncState> getSyncState() {
+        return stateRepository.findById(GoogleCalendarService.CALENDAR_ID);
+    }
+
+    /**
+     * Mirrored events overlapping [from, to], earliest first.
+     */
+    public List<CalendarEvent> getEvents(LocalDate from, LocalDate to) {
+        return eventRepository.findByCalendarIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(
+                GoogleCalendarService.CALENDAR_ID, to.plusDays(1).atStartOfDay(), from.atStartOfDay());
+    }
+
+    /**
+     * Events and busy minutes per day in [from, to]; days without events report zero.
+     *
+     * @return The load per day, or empty if to is before from or the span is
+     *         longer than calendar.load.max-days.
+     */
+    public Optional<List<DailyCalendarLoad>> getDailyLoad(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxLoadDays) {
+            return Optional.empty();
+        }
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            days.put(d, new long[2]);
+        }
+
+        for (CalendarEvent event : getEvents(from, to)) {
+            LocalDate first = event.getStartTime().toLocalDate();
+            LocalDate last = event.getEndTime().minusNanos(1).toLocalDate();
+            for (LocalDate d = first.isBefore(from) ? from : first; !d.isAfter(last) && !d.isAfter(to); d = d.plusDays(1)) {
+                long[] load = days.get(d);
+                load[0]++;
+                if (!event.isAllDay()) {
+                    LocalDateTime dayStart = d.atStartOfDay();
+                    LocalDateTime start = event.getStartTime().isAfter(dayStart) ? event.getStartTime() : dayStart;
+                    LocalDateTime dayEnd = dayStart.plusDays(1);
+                    LocalDateTime end = event.getEndTime().isBefore(dayEnd) ? event.getEndTime() : dayEnd;
+                    load[1] += ChronoUnit.MINUTES.between(start, end);
+                }
+            }
+        }
+
+        List<DailyCalendarLoad> result = new ArrayList<>();
+        days.forEach((date, load) -> result.add(new DailyCalendarLoad(date, (int) load[0], load[1])));
+        return Optional.of(result);
+    }
+
+    private CalendarPullResult run() {
+        String calendarId = GoogleCalendarService.CALENDAR_ID;
+        CalendarSyncState state = stateRepository.findById(calendarId)
+                .orElseGet(() -> new CalendarSyncState(calendarId));
+        // Stored timestamps keep microseconds; the sweep compares against this value
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int[] counts = new int[2]; // upserted, deleted
+        boolean fullSync = state.getSyncToken() == null;
+
+        try {
+            String nextToken;
+            try {
+                nextToken = googleCalendarService.listEventChanges(state.getSyncToken(),
+                        page -> applyPage(calendarId, page, startedAt, counts));
+            } catch (SyncTokenExpiredException e) {
+                logger.info("Calendar sync token expired, running a full sync");
+                fullSync = true;
+                nextToken = googleCalendarService.listEventChanges(null,
+                        page -> applyPage(calendarId, page, startedAt, counts));
+            }
+
+            String token = nextToken;
+            boolean full = fullSync;
+            transactionTemplate.executeWithoutResult(status -> {
+                if (full) {
+                    counts[1] += eventRepository.deleteNotSyncedSince(calendarId, startedAt);
+                    state.setLastFullSyncAt(startedAt);
+                }
+                state.setSyncToken(token);
+                state.setLastSyncAt(startedAt);
+                state.setLastError(null);
+                stateRepository.save(state);
+            });
+            return new CalendarPullResult(calendarId, fullSync, counts[0], counts[1], startedAt, null);
+        } catch (Exception e) {
+            logger.warn("Calendar pull failed after {} upserts", counts[0], e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            state.setLastError(message);
+            stateRepository.save(state);
+            return new CalendarPullResult(calendarId, fullSync, counts[0], counts[1], startedAt, message);
+        }
+    }
+
+    private void applyPage(String calendarId, List<CalendarEventChange> page, LocalDateTime syncedAt, int[] counts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> cancelled = page.stream()
+                    .filter(CalendarEventChange::cancelled).map(CalendarEventChange::eventId).toList();
+            List<CalendarEventChange> changed = page.stream()
+                    .filter(c -> !c.cancelled() && c.start() != null && c.end() != null).toList();
+
+            Map<String, CalendarEvent> existing = eventRepository
+                    .findByCalendarIdAndEventIdIn(calendarId, changed.stream().map(CalendarEventChange::eventId).toList())
+                    .stream().collect(Collectors.toMap(CalendarEvent::getEventId, Function.identity()));
+
+            List<CalendarEvent> toSave = new ArrayList<>(changed.size());
+            for (CalendarEventChange change : changed) {
+                CalendarEvent event = existing.getOrDefault(change.eventId(),
+                        new CalendarEvent(calendarId, change.eventId()));
+                event.setSummary(change.summary());
+                event.setStartTime(change.start());
+                event.setEndTime(change.end());
+                event.setAllDay(change.allDay());
+                event.setUpdatedAt(change.updated());
+                event.setSyncedAt(syncedAt);
+                toSave.add(event);
+            }
+            eventRepository.saveAll(toSave);
+            counts[0] += toSave.size();
+            if (!cancelled.isEmpty()) {
+                counts[1] += eventRepository.deleteByEventIds(calendarId, cancelled);
+            }
+        });
+    }
+}
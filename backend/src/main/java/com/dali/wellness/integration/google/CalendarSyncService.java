@@ -0,0 +1,219 @@
+package com.dali.wellness.integration.google;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dali.wellness.integration.google.dto.CalendarEventRequest;
+import com.dali.wellness.integration.google.dto.CalendarEventResult;
+import com.dali.wellness.integration.google.dto.CalendarSyncEnqueueResult;
+import com.dali.wellness.integration.google.entity.CalendarSyncItem;
+import com.dali.wellness.integration.google.entity.CalendarSyncItem.Status;
+import com.dali.wellness.integration.google.repository.CalendarSyncItemRepository;
+import com.dali.wellness.tracking.entity.Task;
+import com.dali.wellness.tracking.service.TaskService;
+
+/**
+ * Calendar Sync Service
+ * ─────────────────────
+ * Pushes tasks to Google Calendar through a durable queue (calendar_sync_queue).
+ *
+ *   enqueuePending()   – HTTP thread: one row per open task with a deadline, returns at once
+ *   processDueItems()  – scheduled worker: sends due items in Calendar batch
+ *                        requests (up to 50 inserts per round trip)
+ *
+ * Failures are tracked per task. Transient ones (rate limit, 5xx, network)
+ * are retried with exponential backoff up to calendar.sync.max-attempts;
+ * others mark the item FAILED right away. Event ids are fixed per task,
+ * so a retry after a lost response cannot create a duplicate event.
+ */
+@Service
+public class CalendarSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSyncService.class);
+
+    private final CalendarSyncItemRepository queueRepository;
+    private final TaskService taskService;
+    private final GoogleCalendarService googleCalendarService;
+
+    @Value("${calendar.sync.batch-size:50}")
+    private int batchSize;
+
+    @Value("${calendar.sync.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${calendar.sync.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${calendar.sync.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${calendar.sync.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    public CalendarSyncService(CalendarSyncItemRepository queueRepository, TaskService taskService,
+                               GoogleCalendarService googleCalendarService) {
+        this.queueRepository = queueRepository;
+        this.taskService = taskService;
+        this.googleCalendarService = googleCalendarService;
+    }
+
+    /**
+     * Queue every open task with a deadline that is not queued or synced yet.
+     * FAILED items are queued again with a fresh retry budget.
+     */
+    @Transactional
+    public CalendarSyncEnqueueResult enqueuePending() {
+        List<Task> tasks = taskService.getPendingTasksWithDeadline();
+        Map<Long, CalendarSyncItem> existing = queueRepository
+                .findByTaskIdIn(tasks.stream().map(Task::getId).toList()).stream()
+                .collect(Collectors.toMap(CalendarSyncItem::getTaskId, Function.identity()));
+
+        List<CalendarSyncItem> toSave = new ArrayList<>();
+        int alreadyQueued = 0;
+        int alreadySynced = 0;
+        for (Task task : tasks) {
+            CalendarSyncItem item = existing.get(task.getId());
+            if (item == null) {
+                toSave.add(new CalendarSyncItem(task.getId()));
+            } else if (item.getStatus() == Status.FAILED) {
+                item.setStatus(Status.PENDING);
+                item.setAttempts(0);
+                item.setNextAttemptAt(LocalDateTime.now());
+                item.setLastError(null);
+                toSave.add(item);
+            } else if (item.getStatus() == Status.PENDING) {
+                alreadyQueued++;
+            } else {
+                alreadySynced++;
+            }
+        }
+        queueRepository.saveAll(toSave);
+        return new CalendarSyncEnqueueResult(tasks.size(), toSave.size(), alreadyQueued, alreadySynced);
+    }
+
+    /**
+     * Queue size per status, plus how many pending items are due now.
+     */
+    public Map<String, Long> getQueueStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (Status status : Status.values()) {
+            stats.put(status.name(), 0L);
+        }
+        for (Object[] row : queueRepository.countByStatus()) {
+            stats.put(((Status) row[0]).name(), (Long) row[1]);
+        }
+        stats.put("due", queueRepository.countDue(Status.PENDING, LocalDateTime.now()));
+        return stats;
+    }
+
+    /**
+     * Sync status of one task (empty if it was never queued).
+     */
+    public Optional<CalendarSyncItem> getItemForTask(Long taskId) {
+        return queueRepository.findByTaskId(taskId);
+    }
+
+    /**
+     * Worker: send due items batch by batch until none are left
+     * (bounded by calendar.sync.max-batches-per-run per run).
+     */
+    @Scheduled(fixedDelayString = "${calendar.sync.poll-interval:PT15S}")
+    public void processDueItems() {
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            List<CalendarSyncItem> due = queueRepository
+                    .findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                            Status.PENDING, LocalDateTime.now(), Limit.of(batchLimit()));
+            if (due.isEmpty()) {
+                return;
+            }
+            sendBatch(due);
+            if (due.size() < batchLimit()) {
+                return;
+            }
+        }
+    }
+
+    private void sendBatch(List<CalendarSyncItem> items) {
+        Map<Long, Task> tasks = taskService.getTasksByIds(
+                items.stream().map(CalendarSyncItem::getTaskId).toList()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<CalendarEventRequest> requests = new ArrayList<>();
+        for (CalendarSyncItem item : items) {
+            Task task = tasks.get(item.getTaskId());
+            if (task == null || task.getDeadline() == null) {
+                item.setStatus(Status.FAILED);
+                item.setLastError(task == null ? "Task no longer exists" : "Task has no deadline");
+                continue;
+            }
+            // 1 hour event ending at the deadline (same as the single-task sync)
+            requests.add(new CalendarEventRequest(item.getEventId(), task.getTitle(), task.getDescription(),
+                    task.getDeadline().minusHours(1), task.getDeadline()));
+        }
+
+        Map<String, CalendarEventResult> results;
+        try {
+            results = googleCalendarService.insertEvents(requests);
+        } catch (Exception e) {
+            logger.warn("Calendar batch of {} events failed, will retry", requests.size(), e);
+            results = requests.stream().collect(Collectors.toMap(CalendarEventRequest::eventId,
+                    r -> CalendarEventResult.failed(r.eventId(), true, e.getMessage())));
+        }
+
+        int synced = 0;
+        for (CalendarSyncItem item : items) {
+            CalendarEventResult result = results.get(item.getEventId());
+            if (result == null) {
+                continue; // rejected above
+            }
+            if (result.success()) {
+                item.setStatus(Status.SYNCED);
+                item.setHtmlLink(result.htmlLink());
+                item.setLastError(null);
+                synced++;
+            } else {
+                recordFailure(item, result);
+            }
+        }
+        queueRepository.saveAll(items);
+        logger.info("Calendar sync batch: {} sent, {} synced", requests.size(), synced);
+    }
+
+    private void recordFailure(CalendarSyncItem item, CalendarEventResult result) {
+        int attempts = item.getAttempts() + 1;
+        item.setAttempts(attempts);
+        item.setLastError(result.error());
+        if (result.retryable() && attempts < maxAttempts) {
+            item.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        } else {
+            item.setStatus(Status.FAILED);
+        }
+    }
+
+    /**
+     * initial-backoff × 2^(attempts-1), capped at max-backoff.
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private int batchLimit() {
+        return Math.min(batchSize, GoogleCalendarService.MAX_BATCH_SIZE);
+    }
+}
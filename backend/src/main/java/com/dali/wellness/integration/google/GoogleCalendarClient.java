@@ -0,0 +1,239 @@
+package com.dali.wellness.integration.google;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.dali.wellness.integration.google.dto.CalendarClientStatus;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
+import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
+import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.store.FileDataStoreFactory;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarScopes;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Google Calendar Client
+ * ──────────────────────
+ * Owns the one shared Calendar client and builds it off the request path.
+ *
+ *   Startup  – after ApplicationReadyEvent, credentials are loaded and OAuth
+ *              authorization runs on a dedicated "calendar-client-init" thread
+ *   Requests – get() returns the published client (volatile read); while
+ *              initialization runs, callers wait at most init-timeout for it
+ *   Failure  – state FAILED; the next get() starts a fresh attempt
+ *
+ * Only one initialization runs at a time, so concurrent first requests can
+ * no longer race to open several OAuth receivers on port 8888. The guard is
+ * a ReentrantLock rather than synchronized, so waiting virtual threads
+ * do not pin their carrier.
+ *
+ * The HTTP transport is an Apache client with a bounded connection pool,
+ * shared by all Calendar calls (calendar.client.*).
+ */
+@Component
+public class GoogleCalendarClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarClient.class);
+
+    private static final String APPLICATION_NAME = "Life Analytics 2.0";
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final String TOKENS_DIRECTORY_PATH = "tokens";
+    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
+    private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
+
+    public enum State { NOT_CONFIGURED, INITIALIZING, READY, FAILED }
+
+    /**
+     * Google API root; the calendar-stub profile points it at CalendarStubController.
+     */
+    @Value("${calendar.api.root-url:https://www.googleapis.com/}")
+    private String rootUrl;
+
+    @Value("${calendar.api.oauth-enabled:true}")
+    private boolean oauthEnabled;
+
+    @Value("${calendar.client.warm-up:true}")
+    private boolean warmUp;
+
+    @Value("${calendar.client.init-timeout:PT10S}")
+    private Duration initTimeout;
+
+    @Value("${calendar.client.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${calendar.client.read-timeout:PT30S}")
+    private Duration readTimeout;
+
+    private final ApacheHttpTransport transport;
+
+    private final ExecutorService initExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "calendar-client-init");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Calendar calendar;
+    private volatile State state = State.NOT_CONFIGURED;
+    private volatile String lastError;
+    private volatile LocalDateTime stateSince = LocalDateTime.now();
+
+    private final ReentrantLock initLock = new ReentrantLock();
+
+    /**
+     * Running or last initialization attempt (guarded by initLock).
+     */
+    private CompletableFuture<Calendar> initialization;
+
+    public GoogleCalendarClient(
+            @Value("${calendar.client.max-connections:10}") int maxConnections,
+            @Value("${calendar.client.idle-timeout:PT60S}") Duration idleTimeout) {
+        this.transport = new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUp) {
+            startInitialization();
+        }
+    }
+
+    /**
+     * The shared Calendar client, initializing it first if needed.
+     *
+     * @throws IOException if credentials are missing, authorization failed,
+     *                     or initialization did not finish within init-timeout
+     */
+    public Calendar get() throws IOException {
+        Calendar client = calendar;
+        if (client != null) {
+            return client;
+        }
+        try {
+            return startInitialization().get(initTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Google Calendar client is still initializing (authorization pending?)");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Google Calendar client");
+        }
+    }
+
+    public CalendarClientStatus getStatus() {
+        return new CalendarClientStatus(state, lastError, stateSince);
+    }
+
+    private CompletableFuture<Calendar> startInitialization() {
+        initLock.lock();
+        try {
+            if (initialization == null || (initialization.isDone() && calendar == null)) {
+                setState(State.INITIALIZING, null);
+                initialization = CompletableFuture.supplyAsync(this::build, initExecutor);
+            }
+            return initialization;
+        } finally {
+            initLock.unlock();
+        }
+    }
+
+    private Calendar build() {
+        try {
+            // calendar-stub profile: local fake API, requests sent without credentials
+            Credential credential = oauthEnabled ? authorize() : null;
+
+            Calendar client = new Calendar.Builder(transport, JSON_FACTORY, requestInitializer(credential))
+                    .setApplicationName(APPLICATION_NAME)
+                    .setRootUrl(rootUrl)
+                    .build();
+            calendar = client;
+            setState(State.READY, null);
+            logger.info("Google Calendar client ready ({})", rootUrl);
+            return client;
+        } catch (FileNotFoundException e) {
+            setState(State.NOT_CONFIGURED, e.getMessage());
+            logger.info("Google Calendar not configured: {}", e.getMessage());
+            throw new CompletionException(e);
+        } catch (IOException | RuntimeException e) {
+            setState(State.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            logger.error("Google Calendar client initialization failed", e);
+            throw new CompletionException(e);
+        }
+    }
+
+    private Credential authorize() throws IOException {
+        InputStream in = GoogleCalendarClient.class.getResourceAsStream(CREDENTIALS_FILE_PATH);
+        if (in == null) {
+            throw new FileNotFoundException("Resource not found: " + CREDENTIALS_FILE_PATH + ". Please download credentials.json from Google Cloud Console and place it in backend/src/main/resources/");
+        }
+
+        GoogleClientSecrets clientSecrets = GoogleClientSecrets.load(JSON_FACTORY, new InputStreamReader(in));
+
+        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
+                transport, JSON_FACTORY, clientSecrets, SCOPES)
+                .setDataStoreFactory(new FileDataStoreFactory(new java.io.File(TOKENS_DIRECTORY_PATH)))
+                .setAccessType("offline")
+                .build();
+
+        // LocalServerReceiver will open the browser to authenticate (first run only;
+        // the token is then stored under tokens/)
+        LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
+        return new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+    }
+
+    private HttpRequestInitializer requestInitializer(Credential credential) {
+        return request -> {
+            if (credential != null) {
+                credential.initialize(request);
+            }
+            request.setConnectTimeout((int) connectTimeout.toMillis());
+            request.setReadTimeout((int) readTimeout.toMillis());
+        };
+    }
+
+    private void setState(State newState, String error) {
+        lastError = error;
+        stateSince = LocalDateTime.now();
+        state = newState;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        initExecutor.shutdownNow();
+        transport.shutdown();
+    }
+}
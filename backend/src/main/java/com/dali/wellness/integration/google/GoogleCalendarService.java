@@ -1,102 +1,227 @@
 package com.dali.wellness.integration.google;
 
-import com.google.api.client.auth.oauth2.Credential;
-import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
-import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
-import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
-import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
+import com.dali.wellness.integration.google.dto.CalendarEventChange;
+import com.dali.wellness.integration.google.dto.CalendarEventRequest;
+import com.dali.wellness.integration.google.dto.CalendarEventResult;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
-import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.calendar.Calendar;
-import com.google.api.services.calendar.CalendarScopes;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+/**
+ * Google Calendar Service
+ * ───────────────────────
+ * Calls to the Calendar API through the shared {@link GoogleCalendarClient}.
+ * Every public method is timed as wellness.calendar (tags: class, method, exception);
+ * createEvent failures, which are returned as text, are counted separately.
+ */
 @Service
+@Timed(value = "wellness.calendar", description = "Google Calendar API calls")
 public class GoogleCalendarService {
 
-    private static final String APPLICATION_NAME = "Life Analytics 2.0";
-    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
-    private static final String TOKENS_DIRECTORY_PATH = "tokens";
-    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
-    private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
+    private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarService.class);
 
-    private Calendar calendarService;
+    public static final String CALENDAR_ID = "primary";
 
-    public GoogleCalendarService() {
+    /**
+     * Google accepts at most 50 calls in one Calendar batch request.
+     */
+    public static final int MAX_BATCH_SIZE = 50;
+
+    @Value("${calendar.pull.page-size:250}")
+    private int pullPageSize;
+
+    private final GoogleCalendarClient calendarClient;
+    private final Counter createEventFailures;
+
+    public GoogleCalendarService(GoogleCalendarClient calendarClient, MeterRegistry meterRegistry) {
+        this.calendarClient = calendarClient;
+        this.createEventFailures = Counter.builder("wellness.calendar.create.failures")
+                .description("createEvent calls that returned an error message")
+                .register(meterRegistry);
     }
 
-    private Calendar getCalendarService() throws IOException, GeneralSecurityException {
-        if (calendarService != null) {
-            return calendarService;
+    public String createEvent(String summary, String description, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        try {
+            Calendar service = calendarClient.get();
+            Event event = service.events().insert(CALENDAR_ID, toEvent(null, summary, description, startDateTime, endDateTime))
+                    .execute();
+            return event.getHtmlLink();
+            
+        } catch (Exception e) {
+            createEventFailures.increment();
+            logger.error("Failed to create calendar event '{}'", summary, e);
+            return "Error: " + e.getMessage();
         }
+    }
 
-        final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
-        
-        InputStream in = GoogleCalendarService.class.getResourceAsStream(CREDENTIALS_FILE_PATH);
-        if (in == null) {
-            throw new FileNotFoundException("Resource not found: " + CREDENTIALS_FILE_PATH + ". Please download credentials.json from Google Cloud Console and place it in backend/src/main/resources/");
+    /**
+     * Insert up to {@link #MAX_BATCH_SIZE} events in ONE HTTP round trip (Calendar batch API).
+     * Every request gets a result, keyed by eventId. An event id that already
+     * exists (409, e.g. created by an earlier attempt whose response was lost)
+     * counts as success.
+     *
+     * @throws IOException if the batch itself could not be sent (all items retryable)
+     */
+    public Map<String, CalendarEventResult> insertEvents(List<CalendarEventRequest> requests)
+            throws IOException {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " events per batch");
+        }
+        Map<String, CalendarEventResult> results = new LinkedHashMap<>();
+        if (requests.isEmpty()) {
+            return results;
         }
-        
-        GoogleClientSecrets clientSecrets = GoogleClientSecrets.load(JSON_FACTORY, new InputStreamReader(in));
-
-        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                HTTP_TRANSPORT, JSON_FACTORY, clientSecrets, SCOPES)
-                .setDataStoreFactory(new FileDataStoreFactory(new java.io.File(TOKENS_DIRECTORY_PATH)))
-                .setAccessType("offline")
-                .build();
-        
-        // LocalServerReceiver will open the browser to authenticate
-        LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
-        Credential credential = new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
-
-        calendarService = new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, credential)
-                .setApplicationName(APPLICATION_NAME)
-                .build();
-                
-        return calendarService;
+
+        Calendar service = calendarClient.get();
+        BatchRequest batch = service.batch();
+        for (CalendarEventRequest request : requests) {
+            Event event = toEvent(request.eventId(), request.summary(), request.description(),
+                    request.start(), request.end());
+            service.events().insert(CALENDAR_ID, event).queue(batch, new JsonBatchCallback<Event>() {
+                @Override
+                public void onSuccess(Event created, HttpHeaders responseHeaders) {
+                    results.put(request.eventId(), CalendarEventResult.created(request.eventId(), created.getHtmlLink()));
+                }
+
+                @Override
+                public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                    results.put(request.eventId(), toResult(request.eventId(), error));
+                }
+            });
+        }
+        batch.execute();
+
+        // A part missing from the batch response is treated as a transient failure
+        for (CalendarEventRequest request : requests) {
+            results.putIfAbsent(request.eventId(),
+                    CalendarEventResult.failed(request.eventId(), true, "No response for this event"));
+        }
+        return results;
     }
 
-    public String createEvent(String summary, String description, java.time.LocalDateTime startDateTime, java.time.LocalDateTime endDateTime) {
-        try {
-            Calendar service = getCalendarService();
+    /**
+     * List events changed since syncToken (or all events if syncToken is null),
+     * page by page. Deleted events are included as cancelled. Recurring events
+     * are expanded into their instances (singleEvents, on full and incremental
+     * pulls alike), so every occurrence is mirrored with its own times.
+     *
+     * @param pageHandler Called once per page; a failure stops the listing.
+     * @return The nextSyncToken to pass on the next call.
+     * @throws SyncTokenExpiredException if Google no longer accepts syncToken (410); do a full sync
+     */
+    public String listEventChanges(String syncToken, Consumer<List<CalendarEventChange>> pageHandler)
+            throws IOException {
+        Calendar service = calendarClient.get();
+        String pageToken = null;
+        while (true) {
+            Events page;
+            try {
+                page = service.events().list(CALENDAR_ID)
+                        .setSyncToken(syncToken)
+                        .setSingleEvents(true)
+                        .setMaxResults(pullPageSize)
+                        .setPageToken(pageToken)
+                        .execute();
+            } catch (GoogleJsonResponseException e) {
+                if (e.getStatusCode() == 410) {
+                    throw new SyncTokenExpiredException();
+                }
+                throw e;
+            }
 
-            Event event = new Event()
-                    .setSummary(summary)
-                    .setDescription(description);
+            List<Event> items = page.getItems() != null ? page.getItems() : List.of();
+            pageHandler.accept(items.stream().map(this::toChange).toList());
 
-            Date startDate = Date.from(startDateTime.atZone(ZoneId.systemDefault()).toInstant());
-            DateTime start = new DateTime(startDate);
-            EventDateTime startEventDateTime = new EventDateTime().setDateTime(start);
-            event.setStart(startEventDateTime);
+            pageToken = page.getNextPageToken();
+            if (pageToken == null) {
+                return page.getNextSyncToken();
+            }
+        }
+    }
 
-            Date endDate = Date.from(endDateTime.atZone(ZoneId.systemDefault()).toInstant());
-            DateTime end = new DateTime(endDate);
-            EventDateTime endEventDateTime = new EventDateTime().setDateTime(end);
-            event.setEnd(endEventDateTime);
+    /**
+     * The stored syncToken was invalidated by Google; the mirror needs a full sync.
+     */
+    public static class SyncTokenExpiredException extends IOException {
+        public SyncTokenExpiredException() {
+            super("Calendar sync token expired (410 Gone)");
+        }
+    }
 
-            String calendarId = "primary";
-            event = service.events().insert(calendarId, event).execute();
-            return event.getHtmlLink();
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Error: " + e.getMessage();
+    private CalendarEventChange toChange(Event event) {
+        boolean cancelled = "cancelled".equals(event.getStatus());
+        boolean allDay = event.getStart() != null && event.getStart().getDate() != null;
+        return new CalendarEventChange(event.getId(), cancelled, event.getSummary(),
+                toLocal(event.getStart()), toLocal(event.getEnd()), allDay, toLocal(event.getUpdated()));
+    }
+
+    private LocalDateTime toLocal(EventDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        return toLocal(time.getDateTime() != null ? time.getDateTime() : time.getDate());
+    }
+
+    private LocalDateTime toLocal(DateTime time) {
+        if (time == null) {
+            return null;
+        }
+        if (time.isDateOnly()) {
+            // All-day: "2025-12-04" is parsed as UTC midnight; keep the calendar date
+            return LocalDate.parse(time.toStringRfc3339()).atStartOfDay();
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time.getValue()), ZoneId.systemDefault());
+    }
+
+    private CalendarEventResult toResult(String eventId, GoogleJsonError error) {
+        int code = error.getCode();
+        if (code == 409) {
+            return CalendarEventResult.created(eventId, null);
         }
+        String reason = error.getErrors() != null && !error.getErrors().isEmpty()
+                ? error.getErrors().get(0).getReason() : null;
+        boolean rateLimited = code == 429 || (code == 403
+                && ("rateLimitExceeded".equals(reason) || "userRateLimitExceeded".equals(reason)));
+        return CalendarEventResult.failed(eventId, rateLimited || code >= 500, code + " " + error.getMessage());
+    }
+
+    private Event toEvent(String eventId, String summary, String description,
+                          LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        Event event = new Event()
+                .setId(eventId)
+                .setSummary(summary)
+                .setDescription(description);
+
+        Date startDate = Date.from(startDateTime.atZone(ZoneId.systemDefault()).toInstant());
+        event.setStart(new EventDateTime().setDateTime(new DateTime(startDate)));
+
+        Date endDate = Date.from(endDateTime.atZone(ZoneId.systemDefault()).toInstant());
+        event.setEnd(new EventDateTime().setDateTime(new DateTime(endDate)));
+        return event;
     }
 }
@@ -0,0 +1,19 @@
+package com.dali.wellness.integration.google.dto;
+
+import java.time.LocalDateTime;
+
+import com.dali.wellness.integration.google.GoogleCalendarClient;
+
+/**
+ * CalendarClientStatus
+ * ─────────────────────
+ * Health of the shared Google Calendar client (GET /api/health/calendar).
+ *
+ * @param error why the client is NOT_CONFIGURED or FAILED, otherwise null
+ * @param since when the current state was entered
+ */
+public record CalendarClientStatus(
+        GoogleCalendarClient.State state,
+        String error,
+        LocalDateTime since) {
+}
@@ -0,0 +1,19 @@
+package com.dali.wellness.integration.google.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CalendarEventChange
+ * ────────────────────
+ * One event from an events.list page: new, updated, or deleted (cancelled).
+ * Times are local; for all-day events start/end are day boundaries (end exclusive).
+ */
+public record CalendarEventChange(
+        String eventId,
+        boolean cancelled,
+        String summary,
+        LocalDateTime start,
+        LocalDateTime end,
+        boolean allDay,
+        LocalDateTime updated) {
+}
@@ -0,0 +1,17 @@
+package com.dali.wellness.integration.google.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CalendarEventRequest
+ * ─────────────────────
+ * One event to insert in a batch. eventId is chosen by the caller
+ * (Google base32hex rules: a-v, 0-9, 5-1024 chars) so retries are idempotent.
+ */
+public record CalendarEventRequest(
+        String eventId,
+        String summary,
+        String description,
+        LocalDateTime start,
+        LocalDateTime end) {
+}
@@ -0,0 +1,25 @@
+package com.dali.wellness.integration.google.dto;
+
+/**
+ * CalendarEventResult
+ * ────────────────────
+ * Outcome of one insert inside a batch.
+ *
+ * @param retryable failure is transient (rate limit, 5xx, transport) and worth retrying
+ * @param htmlLink  link to the created event (null if it already existed or failed)
+ */
+public record CalendarEventResult(
+        String eventId,
+        boolean success,
+        boolean retryable,
+        String htmlLink,
+        String error) {
+
+    public static CalendarEventResult created(String eventId, String htmlLink) {
+        return new CalendarEventResult(eventId, true, false, htmlLink, null);
+    }
+
+    public static CalendarEventResult failed(String eventId, boolean retryable, String error) {
+        return new CalendarEventResult(eventId, false, retryable, null, error);
+    }
+}
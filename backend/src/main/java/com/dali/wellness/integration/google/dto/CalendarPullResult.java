@@ -0,0 +1,22 @@
+package com.dali.wellness.integration.google.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CalendarPullResult
+ * ───────────────────
+ * Outcome of one mirror pull (POST /api/calendar/pull).
+ *
+ * @param fullSync true if the whole calendar was listed (no or expired syncToken)
+ * @param upserted events inserted or updated in calendar_event
+ * @param deleted  events removed (cancelled in Google, or gone after a full sync)
+ * @param error    why the pull stopped, null on success
+ */
+public record CalendarPullResult(
+        String calendarId,
+        boolean fullSync,
+        int upserted,
+        int deleted,
+        LocalDateTime pulledAt,
+        String error) {
+}
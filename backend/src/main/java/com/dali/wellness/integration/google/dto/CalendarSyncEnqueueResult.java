@@ -0,0 +1,18 @@
+package com.dali.wellness.integration.google.dto;
+
+/**
+ * CalendarSyncEnqueueResult
+ * ──────────────────────────
+ * Outcome of POST /api/calendar/sync-pending.
+ *
+ * @param pendingTasks  open tasks with a deadline
+ * @param enqueued      newly queued (or FAILED items queued again)
+ * @param alreadyQueued still waiting in the queue
+ * @param alreadySynced pushed to the calendar earlier
+ */
+public record CalendarSyncEnqueueResult(
+        int pendingTasks,
+        int enqueued,
+        int alreadyQueued,
+        int alreadySynced) {
+}
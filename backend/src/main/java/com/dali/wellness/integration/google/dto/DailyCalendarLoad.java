@@ -0,0 +1,17 @@
+package com.dali.wellness.integration.google.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DailyCalendarLoad
+ * ──────────────────
+ * How busy one day was, from the local event mirror.
+ *
+ * @param events      events touching the day (all-day events included)
+ * @param busyMinutes minutes covered by timed events (overlaps counted once per event)
+ */
+public record DailyCalendarLoad(
+        LocalDate date,
+        int events,
+        long busyMinutes) {
+}
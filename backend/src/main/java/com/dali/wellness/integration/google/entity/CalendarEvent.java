@@ -0,0 +1,128 @@
+package com.dali.wellness.integration.google.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * CalendarEvent Entity
+ * ─────────────────────
+ * Local mirror of one Google Calendar event, kept current by
+ * CalendarMirrorService (incremental syncToken pulls).
+ *
+ * Table: calendar_event
+ * ┌────┬─────────────┬──────────┬─────────┬────────────┬──────────┬─────────┬────────────┬───────────┐
+ * │ id │ calendar_id │ event_id │ summary │ start_time │ end_time │ all_day │ updated_at │ synced_at │
+ * └────┴─────────────┴──────────┴─────────┴────────────┴──────────┴─────────┴────────────┴───────────┘
+ *   Times are local (system zone). All-day events span whole days, end exclusive.
+ *   updated_at is Google's last-modified time; synced_at the last pull that saw the event.
+ */
+@Entity
+@Table(name = "calendar_event", indexes = {
+    @Index(name = "uk_calendar_event", columnList = "calendar_id, event_id", unique = true),
+    @Index(name = "idx_calendar_event_start", columnList = "calendar_id, start_time")
+})
+public class CalendarEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "calendar_id", nullable = false, length = 255)
+    private String calendarId;
+
+    @Column(name = "event_id", nullable = false, length = 255)
+    private String eventId;
+
+    @Column(length = 500)
+    private String summary;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "all_day", nullable = false)
+    private boolean allDay;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+
+    public CalendarEvent() {
+    }
+
+    public CalendarEvent(String calendarId, String eventId) {
+        this.calendarId = calendarId;
+        this.eventId = eventId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCalendarId() {
+        return calendarId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary != null && summary.length() > 500 ? summary.substring(0, 500) : summary;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isAllDay() {
+        return allDay;
+    }
+
+    public void setAllDay(boolean allDay) {
+        this.allDay = allDay;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+}
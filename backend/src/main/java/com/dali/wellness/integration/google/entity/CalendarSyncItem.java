@@ -0,0 +1,160 @@
+package com.dali.wellness.integration.google.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * CalendarSyncItem Entity
+ * ────────────────────────
+ * One task waiting to be (or already) pushed to Google Calendar.
+ * The queue is durable: pending items survive restarts and are picked up
+ * by CalendarSyncService's worker.
+ *
+ * Table: calendar_sync_queue
+ * ┌────┬─────────┬─────────┬──────────┬─────────────────┬──────────┬───────────┬────────────┐
+ * │ id │ task_id │ status  │ attempts │ next_attempt_at │ event_id │ html_link │ last_error │
+ * └────┴─────────┴─────────┴──────────┴─────────────────┴──────────┴───────────┴────────────┘
+ *   One row per task (task_id unique); the worker polls (status, next_attempt_at).
+ */
+@Entity
+@Table(name = "calendar_sync_queue", indexes = {
+    @Index(name = "uk_calendar_sync_task", columnList = "task_id", unique = true),
+    @Index(name = "idx_calendar_sync_due", columnList = "status, next_attempt_at")
+})
+public class CalendarSyncItem {
+
+    public enum Status { PENDING, SYNCED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    /**
+     * Failed sends so far (reset when a FAILED item is re-enqueued).
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Earliest time the worker may (re)send this item.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Client-chosen Google event id, so a retried insert cannot create a duplicate.
+     */
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "html_link", length = 500)
+    private String htmlLink;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public CalendarSyncItem() {
+    }
+
+    public CalendarSyncItem(Long taskId) {
+        this.taskId = taskId;
+        this.eventId = "task" + taskId;
+        this.status = Status.PENDING;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getHtmlLink() {
+        return htmlLink;
+    }
+
+    public void setHtmlLink(String htmlLink) {
+        this.htmlLink = htmlLink;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError != null && lastError.length() > 500 ? lastError.substring(0, 500) : lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
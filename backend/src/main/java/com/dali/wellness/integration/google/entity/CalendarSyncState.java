@@ -0,0 +1,84 @@
+package com.dali.wellness.integration.google.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * CalendarSyncState Entity
+ * ─────────────────────────
+ * Pull progress of one mirrored calendar.
+ *
+ * Table: calendar_sync_state
+ * ┌─────────────┬────────────┬───────────────────┬──────────────┬────────────┐
+ * │ calendar_id │ sync_token │ last_full_sync_at │ last_sync_at │ last_error │
+ * └─────────────┴────────────┴───────────────────┴──────────────┴────────────┘
+ *   sync_token is Google's nextSyncToken from the last complete pull;
+ *   null means the next pull is a full sync.
+ */
+@Entity
+@Table(name = "calendar_sync_state")
+public class CalendarSyncState {
+
+    @Id
+    @Column(name = "calendar_id", length = 255)
+    private String calendarId;
+
+    @Column(name = "sync_token", length = 1024)
+    private String syncToken;
+
+    @Column(name = "last_full_sync_at")
+    private LocalDateTime lastFullSyncAt;
+
+    @Column(name = "last_sync_at")
+    private LocalDateTime lastSyncAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public CalendarSyncState() {
+    }
+
+    public CalendarSyncState(String calendarId) {
+        this.calendarId = calendarId;
+    }
+
+    public String getCalendarId() {
+        return calendarId;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public void setSyncToken(String syncToken) {
+        this.syncToken = syncToken;
+    }
+
+    public LocalDateTime getLastFullSyncAt() {
+        return lastFullSyncAt;
+    }
+
+    public void setLastFullSyncAt(LocalDateTime lastFullSyncAt) {
+        this.lastFullSyncAt = lastFullSyncAt;
+    }
+
+    public LocalDateTime getLastSyncAt() {
+        return lastSyncAt;
+    }
+
+    public void setLastSyncAt(LocalDateTime lastSyncAt) {
+        this.lastSyncAt = lastSyncAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError != null && lastError.length() > 500 ? lastError.substring(0, 500) : lastError;
+    }
+}
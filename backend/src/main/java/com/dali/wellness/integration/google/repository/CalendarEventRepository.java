@@ -0,0 +1,41 @@
+package com.dali.wellness.integration.google.repository;
+
+import com.dali.wellness.integration.google.entity.CalendarEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CalendarEvent Repository
+ * ─────────────────────────
+ * Local mirror of Google Calendar events.
+ */
+@Repository
+public interface CalendarEventRepository extends JpaRepository<CalendarEvent, Long> {
+
+    List<CalendarEvent> findByCalendarIdAndEventIdIn(String calendarId, Collection<String> eventIds);
+
+    /**
+     * Events overlapping [from, to), earliest first (idx_calendar_event_start).
+     */
+    List<CalendarEvent> findByCalendarIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(
+            String calendarId, LocalDateTime to, LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM CalendarEvent e WHERE e.calendarId = :calendarId AND e.eventId IN :eventIds")
+    int deleteByEventIds(@Param("calendarId") String calendarId, @Param("eventIds") Collection<String> eventIds);
+
+    /**
+     * After a full sync: remove events the pull did not see (deleted in Google).
+     */
+    @Modifying
+    @Query("DELETE FROM CalendarEvent e WHERE e.calendarId = :calendarId AND e.syncedAt < :syncStartedAt")
+    int deleteNotSyncedSince(@Param("calendarId") String calendarId,
+                             @Param("syncStartedAt") LocalDateTime syncStartedAt);
+}
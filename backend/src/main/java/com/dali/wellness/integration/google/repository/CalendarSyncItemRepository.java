@@ -0,0 +1,44 @@
+package com.dali.wellness.integration.google.repository;
+
+import com.dali.wellness.integration.google.entity.CalendarSyncItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CalendarSyncItem Repository
+ * ────────────────────────────
+ * Durable work queue for pushing tasks to Google Calendar.
+ */
+@Repository
+public interface CalendarSyncItemRepository extends JpaRepository<CalendarSyncItem, Long> {
+
+    Optional<CalendarSyncItem> findByTaskId(Long taskId);
+
+    List<CalendarSyncItem> findByTaskIdIn(Collection<Long> taskIds);
+
+    /**
+     * Items due for sending, oldest due first (idx_calendar_sync_due).
+     */
+    List<CalendarSyncItem> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            CalendarSyncItem.Status status, LocalDateTime now, Limit limit);
+
+    /**
+     * Queue size per status, as [status, count] rows.
+     */
+    @Query("SELECT i.status, COUNT(i) FROM CalendarSyncItem i GROUP BY i.status")
+    List<Object[]> countByStatus();
+
+    /**
+     * Pending items that could be sent right now.
+     */
+    @Query("SELECT COUNT(i) FROM CalendarSyncItem i WHERE i.status = :status AND i.nextAttemptAt <= :now")
+    long countDue(@Param("status") CalendarSyncItem.Status status, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,14 @@
+package com.dali.wellness.integration.google.repository;
+
+import com.dali.wellness.integration.google.entity.CalendarSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * CalendarSyncState Repository
+ * ─────────────────────────────
+ * One row per mirrored calendar (id = Google calendar id).
+ */
+@Repository
+public interface CalendarSyncStateRepository extends JpaRepository<CalendarSyncState, String> {
+}
@@ -2,8 +2,10 @@ package com.dali.wellness.tracking.controller;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,11 +17,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.dali.wellness.config.QueryBudget;
+import com.dali.wellness.tracking.dto.BulkHabitLogEntry;
+import com.dali.wellness.tracking.dto.BulkHabitLogResult;
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.DataFormat;
 import com.dali.wellness.tracking.entity.Habit;
 import com.dali.wellness.tracking.entity.HabitLog;
 import com.dali.wellness.tracking.service.HabitLogService;
+import com.dali.wellness.tracking.service.HabitRollupService;
 import com.dali.wellness.tracking.service.HabitService;
+import com.dali.wellness.tracking.service.TrackingExportService;
 
 import jakarta.validation.Valid;
 
@@ -31,11 +41,14 @@ import jakarta.validation.Valid;
  * Base path: /api/habits
  *
  * Endpoints:
- *   GET    /api/habits            – List all habits (optional ?category=X)
+ *   GET    /api/habits            – List habits, paged (optional ?category=X, ?cursor=, ?limit=)
  *   GET    /api/habits/{id}       – Get a specific habit
  *   POST   /api/habits            – Create a new habit
  *   PUT    /api/habits/{id}       – Update an existing habit
  *   DELETE /api/habits/{id}       – Delete a habit
+ *   GET    /api/habits/{id}/logs/export – Stream a habit's logs as CSV / NDJSON
+ *   POST   /api/habits/logs/bulk  – Insert many logs across habits in one request
+ *   POST   /api/habits/rollup/rebuild – Rebuild daily log rollup from raw logs
  *
  * Annotations explained:
  *   @RestController    – Combines @Controller + @ResponseBody (returns JSON)
@@ -53,33 +66,37 @@ public class HabitController {
 
     private final HabitService habitService;
     private final HabitLogService habitLogService;
+    private final HabitRollupService habitRollupService;
+    private final TrackingExportService trackingExportService;
 
-    public HabitController(HabitService habitService, HabitLogService habitLogService) {
+    public HabitController(HabitService habitService, HabitLogService habitLogService,
+                           HabitRollupService habitRollupService, TrackingExportService trackingExportService) {
         this.habitService = habitService;
         this.habitLogService = habitLogService;
+        this.habitRollupService = habitRollupService;
+        this.trackingExportService = trackingExportService;
     }
 
     // ─────────────────────────────────────────────────────────────────────────
     // GET /api/habits
-    // GET /api/habits?category=HEALTH
+    // GET /api/habits?category=HEALTH&limit=50&cursor=...
     // ─────────────────────────────────────────────────────────────────────────
     /**
-     * List all habits, optionally filtered by category.
+     * List habits one page at a time (keyset on id), optionally filtered by category.
      *
      * @param category Optional query param to filter by category.
-     * @return List of habits (200 OK)
+     * @param cursor   nextCursor from the previous page (omit for the first page).
+     * @param limit    Page size (max 500).
+     * @return Page of habits with nextCursor, null on the last page (200 OK)
      */
     @GetMapping
-    public ResponseEntity<List<Habit>> getAllHabits(
-            @RequestParam(required = false) String category) {
-        
-        List<Habit> habits;
-        if (category != null && !category.isBlank()) {
-            habits = habitService.getHabitsByCategory(category);
-        } else {
-            habits = habitService.getAllHabits();
-        }
-        return ResponseEntity.ok(habits);
+    public ResponseEntity<CursorPage<Habit>> getAllHabits(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        String filter = category != null && !category.isBlank() ? category : null;
+        return ResponseEntity.ok(habitService.getHabitsPage(filter, cursor, limit));
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -156,29 +173,62 @@ public class HabitController {
 
     // ─────────────────────────────────────────────────────────────────────────
     // GET /api/habits/{id}/logs
-    // GET /api/habits/{id}/logs?from=2025-01-01&to=2025-12-31
+    // GET /api/habits/{id}/logs?from=2025-01-01&to=2025-12-31&limit=50&cursor=...
     // ─────────────────────────────────────────────────────────────────────────
     /**
-     * Get all logs for a habit, optionally filtered by date range.
+     * Get a habit's logs one page at a time (newest first, keyset on
+     * log date + id), optionally filtered by date range.
      */
     @GetMapping("/{id}/logs")
-    public ResponseEntity<List<HabitLog>> getHabitLogs(
+    public ResponseEntity<CursorPage<HabitLog>> getHabitLogs(
             @PathVariable Long id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         
         // Verify habit exists
         if (habitService.getHabitById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<HabitLog> logs;
-        if (from != null && to != null) {
-            logs = habitLogService.getLogsByHabitIdAndDateRange(id, from, to);
-        } else {
-            logs = habitLogService.getLogsByHabitId(id);
+        return ResponseEntity.ok(habitLogService.getLogsPage(id, from, to, cursor, limit));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // GET /api/habits/{id}/logs/export?format=CSV
+    // GET /api/habits/{id}/logs/export?format=NDJSON&from=2023-01-01&to=2025-12-31
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Download a habit's logs (oldest first) as a file, streamed row by row.
+     * Unlike GET /{id}/logs, the full history is never held in memory.
+     *
+     * from and to must be given together (400 otherwise).
+     *
+     * @param format CSV or NDJSON (default NDJSON)
+     */
+    @GetMapping("/{id}/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportHabitLogs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if ((from == null) != (to == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Verify habit exists (before the response is committed)
+        if (habitService.getHabitById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(logs);
+
+        StreamingResponseBody body = out -> trackingExportService.exportHabitLogs(id, from, to, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"habit-" + id + "-logs." + format.fileExtension() + "\"")
+                .body(body);
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -214,6 +264,26 @@ public class HabitController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ─────────────────────────────────────────────────────────────────────────
+    // POST /api/habits/logs/bulk
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Bulk log upload (e.g. backfilling history from a wearable export).
+     * Body: [ { "habitId": 1, "logDate": "2025-12-04", "value": 30, "note": "..." }, ... ]
+     * Same defaults as a single log. Invalid rows are reported, not fatal.
+     *
+     * @return Per-row results (200 OK) or 413 if the upload has too many rows.
+     */
+    @PostMapping("/logs/bulk")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkHabitLogResult> bulkCreateHabitLogs(
+            @RequestBody List<BulkHabitLogEntry> entries) {
+
+        return habitLogService.bulkCreate(entries)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     // PUT /api/habits/{habitId}/logs/{logId}
     // ─────────────────────────────────────────────────────────────────────────
@@ -247,4 +317,17 @@ public class HabitController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // POST /api/habits/rollup/rebuild
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Rebuild the habit_daily_rollup table from raw logs (backfill / repair).
+     * Returns the number of habit-day rows written.
+     */
+    @PostMapping("/rollup/rebuild")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<Map<String, Integer>> rebuildRollup() {
+        return ResponseEntity.ok(Map.of("rows", habitRollupService.rebuild()));
+    }
 }
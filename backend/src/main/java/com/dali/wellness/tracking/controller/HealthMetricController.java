@@ -1,10 +1,13 @@
 package com.dali.wellness.tracking.controller;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +15,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.dali.wellness.config.QueryBudget;
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.DataFormat;
+import com.dali.wellness.tracking.dto.HealthMetricImportResult;
 import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.entity.HealthMetricImport;
+import com.dali.wellness.tracking.service.HealthMetricImportService;
+import com.dali.wellness.tracking.service.HealthMetricRollupService.PrunedDayException;
 import com.dali.wellness.tracking.service.HealthMetricService;
+import com.dali.wellness.tracking.service.TrackingExportService;
 
 import jakarta.validation.Valid;
 
@@ -29,45 +42,53 @@ import jakarta.validation.Valid;
  * Base path: /api/health-metrics
  *
  * Endpoints:
- *   GET    /api/health-metrics              – List all metrics (optional date range)
+ *   GET    /api/health-metrics              – List metrics, paged (optional date range, ?cursor=, ?limit=)
  *   GET    /api/health-metrics/{id}         – Get a specific metric
  *   POST   /api/health-metrics              – Create a new metric
  *   PUT    /api/health-metrics/{id}         – Update a metric
  *   DELETE /api/health-metrics/{id}         – Delete a metric
+ *   POST   /api/health-metrics/import       – Stream-import CSV / NDJSON (resumable)
+ *   GET    /api/health-metrics/import/{importId} – Import progress
+ *   GET    /api/health-metrics/export       – Stream all metrics as CSV / NDJSON
  */
 @RestController
 @RequestMapping("/api/health-metrics")
 public class HealthMetricController {
 
     private final HealthMetricService healthMetricService;
+    private final HealthMetricImportService healthMetricImportService;
+    private final TrackingExportService trackingExportService;
 
-    public HealthMetricController(HealthMetricService healthMetricService) {
+    public HealthMetricController(HealthMetricService healthMetricService,
+                                  HealthMetricImportService healthMetricImportService,
+                                  TrackingExportService trackingExportService) {
         this.healthMetricService = healthMetricService;
+        this.healthMetricImportService = healthMetricImportService;
+        this.trackingExportService = trackingExportService;
     }
 
     // ─────────────────────────────────────────────────────────────────────────
     // GET /api/health-metrics
-    // GET /api/health-metrics?from=2025-01-01&to=2025-12-31
+    // GET /api/health-metrics?from=2025-01-01&to=2025-12-31&limit=50&cursor=...
     // ─────────────────────────────────────────────────────────────────────────
     /**
-     * List all health metrics, optionally filtered by date range.
+     * List health metrics one page at a time (newest first, keyset on
+     * recorded time + id), optionally filtered by date range.
      *
-     * @param from Start date (inclusive)
-     * @param to   End date (inclusive)
-     * @return List of health metrics (200 OK)
+     * @param from   Start date (inclusive)
+     * @param to     End date (inclusive)
+     * @param cursor nextCursor from the previous page (omit for the first page)
+     * @param limit  Page size (max 500)
+     * @return Page of health metrics with nextCursor, null on the last page (200 OK)
      */
     @GetMapping
-    public ResponseEntity<List<HealthMetric>> getAllMetrics(
+    public ResponseEntity<CursorPage<HealthMetric>> getAllMetrics(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
-        
-        List<HealthMetric> metrics;
-        if (from != null && to != null) {
-            metrics = healthMetricService.getMetricsByDateRange(from, to);
-        } else {
-            metrics = healthMetricService.getAllMetrics();
-        }
-        return ResponseEntity.ok(metrics);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        return ResponseEntity.ok(healthMetricService.getMetricsPage(from, to, cursor, limit));
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -120,16 +141,21 @@ public class HealthMetricController {
      *
      * @param id     Path variable – the metric ID to update.
      * @param metric JSON body with updated data.
-     * @return The updated metric (200 OK) or 404 Not Found.
+     * @return The updated metric (200 OK), 404 Not Found, or 409 Conflict
+     *         if the reading's day was dropped by raw retention.
      */
     @PutMapping("/{id}")
     public ResponseEntity<HealthMetric> updateMetric(
             @PathVariable Long id,
             @Valid @RequestBody HealthMetric metric) {
         
-        return healthMetricService.updateMetric(id, metric)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return healthMetricService.updateMetric(id, metric)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (PrunedDayException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -139,13 +165,88 @@ public class HealthMetricController {
      * Delete a health metric.
      *
      * @param id Path variable – the metric ID to delete.
-     * @return 204 No Content if deleted, 404 Not Found if not exists.
+     * @return 204 No Content if deleted, 404 Not Found if not exists,
+     *         409 Conflict if the reading's day was dropped by raw retention.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMetric(@PathVariable Long id) {
-        if (healthMetricService.deleteMetric(id)) {
-            return ResponseEntity.noContent().build();
+        try {
+            if (healthMetricService.deleteMetric(id)) {
+                return ResponseEntity.noContent().build();
+            }
+        } catch (PrunedDayException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // POST /api/health-metrics/import
+    // POST /api/health-metrics/import?importId=abc   (resume)
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Stream-import metrics from the raw request body.
+     * Content-Type: text/csv (header row required) or application/x-ndjson.
+     *
+     * After a FAILED result, send the same file again with the returned
+     * importId: rows already committed are skipped.
+     *
+     * @return Import result (200 OK when completed, 500 when stopped early),
+     *         or 409 Conflict if that import id is already running.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/ndjson"})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<HealthMetricImportResult> importMetrics(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(required = false) String importId,
+            InputStream body) {
+
+        return healthMetricImportService.importMetrics(body, DataFormat.fromMediaType(contentType), importId)
+                .map(result -> result.status() == HealthMetricImport.Status.COMPLETED
+                        ? ResponseEntity.ok(result)
+                        : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // GET /api/health-metrics/import/{importId}
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Progress of an import (rows committed so far, status, last error).
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<HealthMetricImport> getImport(@PathVariable String importId) {
+        return healthMetricImportService.getImport(importId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // GET /api/health-metrics/export?format=CSV
+    // GET /api/health-metrics/export?format=NDJSON&from=2023-01-01&to=2025-12-31
+    // ─────────────────────────────────────────────────────────────────────────
+    /**
+     * Download metrics (oldest first) as a file, streamed row by row.
+     * Unlike GET /api/health-metrics, the full history is never held in memory.
+     * from and to must be given together (400 otherwise).
+     *
+     * @param format CSV or NDJSON (default NDJSON)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMetrics(
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if ((from == null) != (to == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> trackingExportService.exportHealthMetrics(from, to, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"health-metrics." + format.fileExtension() + "\"")
+                .body(body);
+    }
 }
@@ -1,7 +1,10 @@
 package com.dali.wellness.tracking.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,8 +12,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dali.wellness.tracking.dto.CursorPage;
 import com.dali.wellness.tracking.entity.Task;
 import com.dali.wellness.tracking.service.TaskService;
 
@@ -25,13 +30,43 @@ public class TaskController {
     }
 
     @GetMapping
-    public List<Task> getAllTasks() {
-        return taskService.getAllTasks();
+    public CursorPage<Task> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return taskService.getTasksPage(cursor, limit);
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
+        return taskService.getTaskById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Optional deadline window: ?from=2025-12-01T00:00:00&to=2025-12-07T23:59:59
+    // (both or neither: 400 if only one is given)
     @GetMapping("/pending")
-    public List<Task> getPendingTasks() {
-        return taskService.getPendingTasks();
+    public ResponseEntity<List<Task>> getPendingTasks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if ((from == null) != (to == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(from != null
+                ? taskService.getPendingTasks(from, to)
+                : taskService.getPendingTasks());
+    }
+
+    @GetMapping("/overdue")
+    public List<Task> getOverdueTasks() {
+        return taskService.getOverdueTasks();
+    }
+
+    @GetMapping("/completed")
+    public List<Task> getCompletedTasks(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return taskService.getCompletedTasks(from, to);
     }
 
     @PostMapping
@@ -0,0 +1,16 @@
+package com.dali.wellness.tracking.dto;
+
+import java.time.LocalDate;
+
+/**
+ * BulkHabitLogEntry
+ * ──────────────────
+ * One row of a bulk log upload. Same defaults as a single log:
+ * missing logDate → today, missing value → 1.
+ */
+public record BulkHabitLogEntry(
+        Long habitId,
+        LocalDate logDate,
+        Integer value,
+        String note) {
+}
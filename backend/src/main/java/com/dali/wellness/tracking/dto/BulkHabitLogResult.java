@@ -0,0 +1,25 @@
+package com.dali.wellness.tracking.dto;
+
+import java.util.List;
+
+/**
+ * BulkHabitLogResult
+ * ───────────────────
+ * Outcome of a bulk log upload: totals plus one result per submitted row,
+ * in request order. Valid rows are stored even when others are rejected.
+ */
+public record BulkHabitLogResult(
+        int received,
+        int inserted,
+        int rejected,
+        List<RowResult> rows) {
+
+    public enum Status { CREATED, REJECTED }
+
+    /**
+     * @param index position of the row in the request (0-based)
+     * @param error why the row was rejected, null when created
+     */
+    public record RowResult(int index, Status status, String error) {
+    }
+}
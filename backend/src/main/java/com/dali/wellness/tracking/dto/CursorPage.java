@@ -0,0 +1,36 @@
+package com.dali.wellness.tracking.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage
+ * ───────────
+ * One page of a keyset-paginated list.
+ * nextCursor is null on the last page; otherwise pass it back as ?cursor=
+ * to get the rows after this page. Every page costs an index range scan
+ * from the cursor, however deep it is (no OFFSET).
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Page size actually used: at least 1, at most MAX_LIMIT.
+     */
+    public static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Build a page from a query that fetched limit + 1 rows: the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, PageCursor> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+}
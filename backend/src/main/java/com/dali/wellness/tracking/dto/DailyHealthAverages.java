@@ -0,0 +1,17 @@
+package com.dali.wellness.tracking.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DailyHealthAverages Projection
+ * ───────────────────────────────
+ * Per-metric averages of all readings of one day.
+ * Averages are null when no reading that day has the metric.
+ */
+public record DailyHealthAverages(
+        LocalDate date,
+        Double avgSleepHours,
+        Double avgMoodScore,
+        Double avgStressLevel,
+        Double avgEnergyLevel) {
+}
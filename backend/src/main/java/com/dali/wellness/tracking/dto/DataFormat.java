@@ -0,0 +1,37 @@
+package com.dali.wellness.tracking.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * DataFormat
+ * ───────────
+ * Line-oriented file formats for bulk import and export.
+ *   CSV    – header row, then one row per record
+ *   NDJSON – one JSON object per line
+ */
+public enum DataFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * CSV for text/csv, NDJSON for anything else.
+     */
+    public static DataFormat fromMediaType(MediaType mediaType) {
+        return "csv".equalsIgnoreCase(mediaType.getSubtype()) ? CSV : NDJSON;
+    }
+}
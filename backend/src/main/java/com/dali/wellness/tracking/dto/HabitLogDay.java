@@ -0,0 +1,13 @@
+package com.dali.wellness.tracking.dto;
+
+import java.time.LocalDate;
+
+/**
+ * HabitLogDay Projection
+ * ───────────────────────
+ * One distinct (habit, day) pair that has at least one log entry.
+ * Built directly by a JPQL constructor expression, so no HabitLog
+ * entities are hydrated when scanning log history.
+ */
+public record HabitLogDay(Long habitId, LocalDate logDate) {
+}
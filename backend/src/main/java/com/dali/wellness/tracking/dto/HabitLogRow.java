@@ -0,0 +1,20 @@
+package com.dali.wellness.tracking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * HabitLogRow Projection
+ * ───────────────────────
+ * One habit log as exported (habit referenced by id only).
+ * Built by a JPQL constructor expression, so streamed rows are never
+ * managed entities and the persistence context does not grow.
+ */
+public record HabitLogRow(
+        Long id,
+        Long habitId,
+        LocalDate logDate,
+        Integer value,
+        String note,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,16 @@
+package com.dali.wellness.tracking.dto;
+
+/**
+ * HabitLogTotals Projection
+ * ──────────────────────────
+ * Per-habit log count and value sum over a date range.
+ * Habits without logs in the range are included with zero totals.
+ */
+public record HabitLogTotals(
+        Long habitId,
+        String habitName,
+        String category,
+        Integer targetPerWeek,
+        Long logCount,
+        Long valueSum) {
+}
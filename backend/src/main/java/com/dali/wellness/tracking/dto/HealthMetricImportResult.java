@@ -0,0 +1,25 @@
+package com.dali.wellness.tracking.dto;
+
+import java.util.List;
+
+import com.dali.wellness.tracking.entity.HealthMetricImport;
+
+/**
+ * HealthMetricImportResult
+ * ─────────────────────────
+ * Outcome of one import request. On FAILED, re-upload the same file with
+ * ?importId=<importId> to continue after rowsCommitted.
+ *
+ * errors holds the first rejected rows only ("line N: reason"), so the
+ * response size does not grow with the file.
+ */
+public record HealthMetricImportResult(
+        String importId,
+        HealthMetricImport.Status status,
+        long rowsCommitted,
+        long rowsImported,
+        long rowsRejected,
+        long rowsSkipped,
+        String lastError,
+        List<String> errors) {
+}
@@ -0,0 +1,21 @@
+package com.dali.wellness.tracking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * HealthMetricRow Projection
+ * ───────────────────────────
+ * One health metric as exported. Built by a JPQL constructor expression,
+ * so streamed rows are never managed entities and the persistence context
+ * does not grow during an export.
+ * Field names match the import columns, so an export can be re-imported.
+ */
+public record HealthMetricRow(
+        Long id,
+        LocalDateTime recordedAt,
+        Double sleepHours,
+        Integer moodScore,
+        Integer stressLevel,
+        Integer energyLevel,
+        String note) {
+}
@@ -0,0 +1,72 @@
+package com.dali.wellness.tracking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * PageCursor
+ * ───────────
+ * Position of the last row of a page in keyset order: the sort key
+ * (date / timestamp, empty when paging by id only) plus the row id as
+ * tie-breaker. Clients only see it as an opaque token (Base64url), so the
+ * format can change without breaking them.
+ */
+public record PageCursor(String key, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor ofId(long id) {
+        return new PageCursor("", id);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate keyAsDate() {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * @return the decoded cursor, or null for a null/blank token (first page)
+     * @throws InvalidCursorException (400 Bad Request) if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid cursor")
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException() {
+            super("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.dali.wellness.tracking.dto;
+
+/**
+ * TaskSummary Projection
+ * ───────────────────────
+ * Open tasks, and how many of them are past their deadline.
+ */
+public record TaskSummary(
+        Long pending,
+        Long overdue) {
+}
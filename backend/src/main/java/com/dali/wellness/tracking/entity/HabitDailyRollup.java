@@ -0,0 +1,98 @@
+package com.dali.wellness.tracking.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * HabitDailyRollup Entity
+ * ────────────────────────
+ * Pre-aggregated log totals per habit per day.
+ * Kept in sync by HabitLogService on every log write (same transaction),
+ * so analytics read one row per habit-day instead of every raw log.
+ *
+ * Table: habit_daily_rollup
+ * ┌──────────┬────────────┬───────────┬───────────┐
+ * │ habit_id │ log_date   │ log_count │ value_sum │
+ * └──────────┴────────────┴───────────┴───────────┘
+ *   PK: (habit_id, log_date)
+ */
+@Entity
+@Table(name = "habit_daily_rollup")
+@IdClass(HabitDailyRollup.Key.class)
+public class HabitDailyRollup {
+
+    @Id
+    @Column(name = "habit_id", nullable = false)
+    private Long habitId;
+
+    @Id
+    @Column(name = "log_date", nullable = false)
+    private LocalDate logDate;
+
+    /**
+     * Number of habit_log rows for this habit on this day.
+     */
+    @Column(name = "log_count", nullable = false)
+    private long logCount;
+
+    /**
+     * Sum of habit_log.value for this habit on this day.
+     */
+    @Column(name = "value_sum", nullable = false)
+    private long valueSum;
+
+    public HabitDailyRollup() {
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public LocalDate getLogDate() {
+        return logDate;
+    }
+
+    public long getLogCount() {
+        return logCount;
+    }
+
+    public long getValueSum() {
+        return valueSum;
+    }
+
+    /**
+     * Composite primary key (habit_id, log_date).
+     */
+    public static class Key implements Serializable {
+
+        private Long habitId;
+        private LocalDate logDate;
+
+        public Key() {
+        }
+
+        public Key(Long habitId, LocalDate logDate) {
+            this.habitId = habitId;
+            this.logDate = logDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(habitId, other.habitId) && Objects.equals(logDate, other.logDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(habitId, logDate);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.dali.wellness.tracking.entity;
+
+import java.time.LocalDateTime;
+
+import com.dali.wellness.tracking.dto.DataFormat;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * HealthMetricImport Entity
+ * ──────────────────────────
+ * Progress of one streaming health-metric import (CSV or NDJSON upload).
+ *
+ * rowsCommitted is the number of data rows already consumed, and it is
+ * updated in the same transaction as each batch of inserted metrics. After
+ * a failure, re-uploading the same file with the same import id skips
+ * exactly those rows and continues from there.
+ *
+ * Table: health_metric_import
+ * ┌────┬────────┬────────┬────────────────┬───────────────┬───────────────┬────────────┬───────────┐
+ * │ id │ format │ status │ rows_committed │ rows_imported │ rows_rejected │ last_error │ updated_at│
+ * └────┴────────┴────────┴────────────────┴───────────────┴───────────────┴────────────┴───────────┘
+ */
+@Entity
+@Table(name = "health_metric_import")
+public class HealthMetricImport {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Client-supplied or generated import id (used to resume).
+     */
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private DataFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    /**
+     * Data rows consumed and committed (imported + rejected).
+     */
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    /**
+     * Why the last run stopped early (null when it did not fail).
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public HealthMetricImport() {
+    }
+
+    public HealthMetricImport(String id, DataFormat format) {
+        this.id = id;
+        this.format = format;
+        this.status = Status.RUNNING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public DataFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(DataFormat format) {
+        this.format = format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public void setRowsCommitted(long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
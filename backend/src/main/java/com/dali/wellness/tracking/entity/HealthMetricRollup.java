@@ -0,0 +1,209 @@
+package com.dali.wellness.tracking.entity;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * HealthMetricRollup Entity
+ * ──────────────────────────
+ * Downsampled health metrics: count / sum / min / max per metric for one
+ * hour, day, week (Monday start) or month. Kept in sync by
+ * HealthMetricRollupService on every health metric write (same transaction),
+ * and still complete after raw health_metric rows are dropped by retention.
+ *
+ * Table: health_metric_rollup
+ * ┌────────────┬──────────────┬──────────────┬──────────────────────────────┬─────┐
+ * │ resolution │ bucket_start │ record_count │ sleep_count/sum/min/max      │ ... │
+ * └────────────┴──────────────┴──────────────┴──────────────────────────────┴─────┘
+ *   PK: (resolution, bucket_start); same four columns for mood, stress, energy
+ */
+@Entity
+@Table(name = "health_metric_rollup")
+@IdClass(HealthMetricRollup.Key.class)
+public class HealthMetricRollup {
+
+    public enum Resolution {
+        HOUR,
+        DAY,
+        WEEK,
+        MONTH;
+
+        /**
+         * Start of the bucket containing the given time.
+         */
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time.truncatedTo(ChronoUnit.DAYS)
+                        .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * Start of the bucket after the one starting at bucketStart.
+         */
+        public LocalDateTime next(LocalDateTime bucketStart) {
+            return switch (this) {
+                case HOUR -> bucketStart.plusHours(1);
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 10)
+    private Resolution resolution;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /**
+     * Number of health_metric rows in the bucket.
+     */
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "sleep_count", nullable = false)),
+            @AttributeOverride(name = "sum", column = @Column(name = "sleep_sum", nullable = false)),
+            @AttributeOverride(name = "min", column = @Column(name = "sleep_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "sleep_max"))
+    })
+    private MetricAggregate sleepHours = new MetricAggregate();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "mood_count", nullable = false)),
+            @AttributeOverride(name = "sum", column = @Column(name = "mood_sum", nullable = false)),
+            @AttributeOverride(name = "min", column = @Column(name = "mood_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "mood_max"))
+    })
+    private MetricAggregate moodScore = new MetricAggregate();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "stress_count", nullable = false)),
+            @AttributeOverride(name = "sum", column = @Column(name = "stress_sum", nullable = false)),
+            @AttributeOverride(name = "min", column = @Column(name = "stress_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "stress_max"))
+    })
+    private MetricAggregate stressLevel = new MetricAggregate();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "energy_count", nullable = false)),
+            @AttributeOverride(name = "sum", column = @Column(name = "energy_sum", nullable = false)),
+            @AttributeOverride(name = "min", column = @Column(name = "energy_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "energy_max"))
+    })
+    private MetricAggregate energyLevel = new MetricAggregate();
+
+    public HealthMetricRollup() {
+    }
+
+    public HealthMetricRollup(Resolution resolution, LocalDateTime bucketStart) {
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Count one raw reading.
+     */
+    public void add(Double sleep, Integer mood, Integer stress, Integer energy) {
+        recordCount++;
+        sleepHours.add(sleep);
+        moodScore.add(mood);
+        stressLevel.add(stress);
+        energyLevel.add(energy);
+    }
+
+    /**
+     * Merge a finer bucket (e.g. a day into its week).
+     */
+    public void add(HealthMetricRollup other) {
+        recordCount += other.recordCount;
+        sleepHours.add(other.sleepHours);
+        moodScore.add(other.moodScore);
+        stressLevel.add(other.stressLevel);
+        energyLevel.add(other.energyLevel);
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public MetricAggregate getSleepHours() {
+        return sleepHours;
+    }
+
+    public MetricAggregate getMoodScore() {
+        return moodScore;
+    }
+
+    public MetricAggregate getStressLevel() {
+        return stressLevel;
+    }
+
+    public MetricAggregate getEnergyLevel() {
+        return energyLevel;
+    }
+
+    /**
+     * Composite primary key (resolution, bucket_start).
+     */
+    public static class Key implements Serializable {
+
+        private Resolution resolution;
+        private LocalDateTime bucketStart;
+
+        public Key() {
+        }
+
+        public Key(Resolution resolution, LocalDateTime bucketStart) {
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return resolution == other.resolution && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resolution, bucketStart);
+        }
+    }
+}
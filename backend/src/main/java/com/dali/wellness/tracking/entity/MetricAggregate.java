@@ -0,0 +1,80 @@
+package com.dali.wellness.tracking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * MetricAggregate (embeddable)
+ * ────────────────────────────
+ * count / sum / min / max of one health metric within a rollup bucket.
+ * Column names are set per metric with @AttributeOverride in
+ * {@link HealthMetricRollup}.
+ */
+@Embeddable
+public class MetricAggregate {
+
+    @Column(name = "value_count", nullable = false)
+    private long count;
+
+    @Column(name = "value_sum", nullable = false)
+    private double sum;
+
+    @Column(name = "value_min")
+    private Double min;
+
+    @Column(name = "value_max")
+    private Double max;
+
+    public MetricAggregate() {
+    }
+
+    /**
+     * Count one reading (null = metric not recorded, ignored).
+     */
+    public void add(Number value) {
+        if (value == null) {
+            return;
+        }
+        double v = value.doubleValue();
+        count++;
+        sum += v;
+        min = min == null ? v : Math.min(min, v);
+        max = max == null ? v : Math.max(max, v);
+    }
+
+    /**
+     * Merge a finer bucket into this one.
+     */
+    public void add(MetricAggregate other) {
+        if (other == null || other.count == 0) {
+            return;
+        }
+        count += other.count;
+        sum += other.sum;
+        min = min == null ? other.min : Math.min(min, other.min);
+        max = max == null ? other.max : Math.max(max, other.max);
+    }
+
+    /**
+     * Average, or null when no reading has this metric.
+     */
+    public Double avg() {
+        return count > 0 ? sum / count : null;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+}
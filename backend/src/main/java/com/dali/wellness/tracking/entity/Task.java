@@ -2,15 +2,22 @@ package com.dali.wellness.tracking.entity;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // Pending / overdue lists: WHERE completed = false [AND deadline range] ORDER BY deadline
+    @Index(name = "idx_tasks_completed_deadline", columnList = "completed, deadline"),
+    // Completed-in-range list: WHERE completed = true AND completed_at range
+    @Index(name = "idx_tasks_completed_at", columnList = "completed, completed_at")
+})
 public class Task {
 
     @Id
@@ -26,6 +33,10 @@ public class Task {
 
     private boolean completed;
 
+    // Set when the task is marked completed, cleared when it is reopened
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -41,4 +52,7 @@ public class Task {
 
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
 }
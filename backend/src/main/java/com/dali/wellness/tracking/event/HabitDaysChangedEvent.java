@@ -0,0 +1,28 @@
+package com.dali.wellness.tracking.event;
+
+import java.util.List;
+
+import com.dali.wellness.tracking.dto.HabitLogDay;
+
+/**
+ * HabitDaysChangedEvent
+ * ──────────────────────
+ * Published by HabitRollupService when habit-days flip between "logged"
+ * and "not logged", inside the writing transaction.
+ *
+ *   started – habit-days that just got their first log
+ *   ended   – habit-days that just lost their last log
+ *
+ * Listeners that keep derived state in the same transaction should use a
+ * plain {@code @EventListener} (they run before the commit).
+ */
+public record HabitDaysChangedEvent(List<HabitLogDay> started, List<HabitLogDay> ended) {
+
+    public static HabitDaysChangedEvent started(List<HabitLogDay> days) {
+        return new HabitDaysChangedEvent(days, List.of());
+    }
+
+    public static HabitDaysChangedEvent ended(List<HabitLogDay> days) {
+        return new HabitDaysChangedEvent(List.of(), days);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dali.wellness.tracking.event;
+
+/**
+ * HabitRollupRebuiltEvent
+ * ────────────────────────
+ * Published after habit_daily_rollup was recomputed from raw logs,
+ * inside the rebuild transaction. State derived from the rollup
+ * should be rebuilt as well.
+ */
+public record HabitRollupRebuiltEvent(int rows) {
+}
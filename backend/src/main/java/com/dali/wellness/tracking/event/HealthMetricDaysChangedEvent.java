@@ -0,0 +1,14 @@
+package com.dali.wellness.tracking.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * HealthMetricDaysChangedEvent
+ * ─────────────────────────────
+ * Published by health metric writes (single and import), inside the
+ * writing transaction, with every day whose readings were added,
+ * changed or removed.
+ */
+public record HealthMetricDaysChangedEvent(Set<LocalDate> days) {
+}
@@ -0,0 +1,13 @@
+package com.dali.wellness.tracking.event;
+
+import com.dali.wellness.tracking.dto.HealthMetricRow;
+
+/**
+ * HealthMetricRecordedEvent
+ * ──────────────────────────
+ * Published by HealthMetricService.createMetric, inside the writing
+ * transaction, with the new reading. Imports do not publish it: they are
+ * history backfill, not live readings.
+ */
+public record HealthMetricRecordedEvent(HealthMetricRow reading) {
+}
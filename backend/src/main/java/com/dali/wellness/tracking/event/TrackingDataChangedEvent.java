@@ -0,0 +1,21 @@
+package com.dali.wellness.tracking.event;
+
+/**
+ * TrackingDataChangedEvent
+ * ─────────────────────────
+ * Published by tracking services after a write, so read-side modules
+ * (analytics caches, etc.) can react without the tracking domain
+ * depending on them.
+ *
+ * Listeners that must see committed data should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ */
+public record TrackingDataChangedEvent(Kind kind) {
+
+    public enum Kind {
+        HABIT,
+        HABIT_LOG,
+        HEALTH_METRIC,
+        TASK
+    }
+}
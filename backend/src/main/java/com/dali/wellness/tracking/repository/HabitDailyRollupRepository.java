@@ -0,0 +1,80 @@
+package com.dali.wellness.tracking.repository;
+
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.entity.HabitDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * HabitDailyRollup Repository
+ * ────────────────────────────
+ * Incremental maintenance of the habit_daily_rollup table.
+ * All writes are single statements, safe under concurrent logging.
+ */
+@Repository
+public interface HabitDailyRollupRepository extends JpaRepository<HabitDailyRollup, HabitDailyRollup.Key> {
+
+    /**
+     * Add a delta to one habit-day row, creating it if missing (MySQL upsert).
+     * @return 1 if the row was inserted, 2 if an existing row was updated
+     *         (MySQL affected-row count, decided under the row lock)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO habit_daily_rollup (habit_id, log_date, log_count, value_sum) " +
+                   "VALUES (:habitId, :logDate, :countDelta, :valueDelta) " +
+                   "ON DUPLICATE KEY UPDATE log_count = log_count + :countDelta, " +
+                   "value_sum = value_sum + :valueDelta",
+           nativeQuery = true)
+    int upsertDelta(
+            @Param("habitId") Long habitId,
+            @Param("logDate") LocalDate logDate,
+            @Param("countDelta") long countDelta,
+            @Param("valueDelta") long valueDelta);
+
+    /**
+     * Remove a habit-day row once its last log is gone.
+     * @return 1 if the row was removed (the day is no longer logged), else 0
+     */
+    @Modifying
+    @Query("DELETE FROM HabitDailyRollup r WHERE r.habitId = :habitId " +
+           "AND r.logDate = :logDate AND r.logCount <= 0")
+    int deleteIfEmpty(
+            @Param("habitId") Long habitId,
+            @Param("logDate") LocalDate logDate);
+
+    /**
+     * Earliest logged day of a habit, or null if it has no logs.
+     */
+    @Query("SELECT MIN(r.logDate) FROM HabitDailyRollup r WHERE r.habitId = :habitId")
+    LocalDate findFirstDay(@Param("habitId") Long habitId);
+
+    /**
+     * Every habit-day row, ordered by habit then day (full rebuilds of derived data).
+     */
+    @Query("SELECT new com.dali.wellness.tracking.dto.HabitLogDay(r.habitId, r.logDate) " +
+           "FROM HabitDailyRollup r ORDER BY r.habitId, r.logDate")
+    List<HabitLogDay> findAllDays();
+
+    /**
+     * Remove every rollup row (first step of a full rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM HabitDailyRollup r")
+    int deleteAllRows();
+
+    /**
+     * Recompute every rollup row from raw habit_log in one statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO habit_daily_rollup (habit_id, log_date, log_count, value_sum) " +
+                   "SELECT habit_id, log_date, COUNT(*), COALESCE(SUM(value), 0) " +
+                   "FROM habit_log GROUP BY habit_id, log_date",
+           nativeQuery = true)
+    int insertFromHabitLogs();
+}
@@ -0,0 +1,118 @@
+package com.dali.wellness.tracking.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.entity.HabitLog;
+
+/**
+ * HabitLog Batch Repository
+ * ──────────────────────────
+ * JDBC batch writes for bulk ingestion.
+ *
+ * habit_log ids are IDENTITY, which stops Hibernate from batching inserts
+ * (it needs each generated id back immediately). Bulk rows never need their
+ * entity back, so they go through JdbcTemplate.batchUpdate instead: one
+ * round-trip per chunk, and with rewriteBatchedStatements=true the MySQL
+ * driver sends each chunk as a single multi-row INSERT.
+ */
+@Repository
+public class HabitLogBatchRepository {
+
+    private static final String INSERT_LOG =
+            "INSERT INTO habit_log (habit_id, log_date, value, note, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUP =
+            "INSERT INTO habit_daily_rollup (habit_id, log_date, log_count, value_sum) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE log_count = log_count + ?, value_sum = value_sum + ?";
+
+    private static final String SELECT_ROLLUP_COUNTS_FOR_UPDATE =
+            "SELECT habit_id, log_date, log_count FROM habit_daily_rollup WHERE (habit_id, log_date) IN (%s) " +
+            "FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HabitLogBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert logs in chunks of {@code batchSize}. Only habit id, date, value
+     * and note are read from each log; created_at is set to now.
+     */
+    public void insertAll(List<HabitLog> logs, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_LOG, logs, batchSize, (ps, log) -> {
+            ps.setLong(1, log.getHabit().getId());
+            ps.setDate(2, Date.valueOf(log.getLogDate()));
+            ps.setInt(3, log.getValue());
+            if (log.getNote() != null) {
+                ps.setString(4, log.getNote());
+            } else {
+                ps.setNull(4, Types.VARCHAR);
+            }
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * Add per habit-day deltas to habit_daily_rollup in chunks of {@code batchSize}.
+     *
+     * Rewritten batches report no per-row affected counts, so the rows are
+     * read back afterwards: the upsert already holds their locks, so every
+     * other transaction's delta is either committed and included or still
+     * waiting. A row whose count equals its (positive) delta was created here.
+     *
+     * @return habit-days this batch created (their first logs)
+     */
+    public List<HabitLogDay> upsertRollupDeltas(List<RollupDelta> deltas, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.day().habitId());
+            ps.setDate(2, Date.valueOf(delta.day().logDate()));
+            ps.setLong(3, delta.countDelta());
+            ps.setLong(4, delta.valueDelta());
+            ps.setLong(5, delta.countDelta());
+            ps.setLong(6, delta.valueDelta());
+        });
+
+        List<HabitLogDay> created = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i += batchSize) {
+            List<RollupDelta> chunk = deltas.subList(i, Math.min(i + batchSize, deltas.size()));
+            Map<HabitLogDay, Long> counts = new HashMap<>();
+            Object[] args = new Object[chunk.size() * 2];
+            for (int j = 0; j < chunk.size(); j++) {
+                args[2 * j] = chunk.get(j).day().habitId();
+                args[2 * j + 1] = Date.valueOf(chunk.get(j).day().logDate());
+            }
+            String sql = SELECT_ROLLUP_COUNTS_FOR_UPDATE.formatted(
+                    String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)")));
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> counts.put(
+                    new HabitLogDay(rs.getLong("habit_id"), rs.getDate("log_date").toLocalDate()),
+                    rs.getLong("log_count")), args);
+            for (RollupDelta delta : chunk) {
+                if (counts.getOrDefault(delta.day(), 0L) == delta.countDelta()) {
+                    created.add(delta.day());
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Change to one habit_daily_rollup row.
+     */
+    public record RollupDelta(HabitLogDay day, long countDelta, long valueDelta) {
+    }
+}
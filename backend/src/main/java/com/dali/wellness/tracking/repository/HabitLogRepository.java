@@ -1,13 +1,21 @@
 package com.dali.wellness.tracking.repository;
 
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.dto.HabitLogRow;
+import com.dali.wellness.tracking.dto.HabitLogTotals;
 import com.dali.wellness.tracking.entity.HabitLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * HabitLog Repository
@@ -17,6 +25,11 @@ import java.util.List;
 @Repository
 public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
 
+    /**
+     * JDBC fetch size for export streams: rows held by the driver at a time.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
     /**
      * Find all logs for a specific habit.
      */
@@ -28,6 +41,48 @@ public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
     List<HabitLog> findByHabitIdAndLogDateBetweenOrderByLogDateDesc(
             Long habitId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Keyset page of a habit's logs, newest first, optionally within from/to.
+     * Rows strictly after the cursor (afterDate, afterId) in (log_date DESC, id DESC)
+     * order; afterDate null for the first page. Served by idx_habit_log_habit_date
+     * (InnoDB appends the primary key id to every secondary index).
+     */
+    @Query("SELECT l FROM HabitLog l WHERE l.habit.id = :habitId " +
+           "AND (:from IS NULL OR l.logDate >= :from) AND (:to IS NULL OR l.logDate <= :to) " +
+           "AND (:afterDate IS NULL OR l.logDate < :afterDate " +
+           "OR (l.logDate = :afterDate AND l.id < :afterId)) " +
+           "ORDER BY l.logDate DESC, l.id DESC")
+    List<HabitLog> findPageByHabitId(
+            @Param("habitId") Long habitId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") long afterId,
+            Limit limit);
+
+    /**
+     * Stream all logs of a habit, oldest first, for export.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.dali.wellness.tracking.dto.HabitLogRow(" +
+           "l.id, l.habit.id, l.logDate, l.value, l.note, l.createdAt) " +
+           "FROM HabitLog l WHERE l.habit.id = :habitId ORDER BY l.logDate, l.id")
+    Stream<HabitLogRow> streamRowsByHabitId(@Param("habitId") Long habitId);
+
+    /**
+     * Stream logs of a habit within a date range, oldest first, for export.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.dali.wellness.tracking.dto.HabitLogRow(" +
+           "l.id, l.habit.id, l.logDate, l.value, l.note, l.createdAt) " +
+           "FROM HabitLog l WHERE l.habit.id = :habitId " +
+           "AND l.logDate BETWEEN :startDate AND :endDate ORDER BY l.logDate, l.id")
+    Stream<HabitLogRow> streamRowsByHabitIdInRange(
+            @Param("habitId") Long habitId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     /**
      * Find a log for a specific habit on a specific date.
      * Useful to check if already logged today.
@@ -37,9 +92,10 @@ public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
     /**
      * Count logs for a habit within a date range.
      * Useful for calculating completion rates.
+     * Reads habit_daily_rollup: one row per day instead of one per log.
      */
-    @Query("SELECT COUNT(hl) FROM HabitLog hl WHERE hl.habit.id = :habitId " +
-           "AND hl.logDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(r.logCount), 0) FROM HabitDailyRollup r WHERE r.habitId = :habitId " +
+           "AND r.logDate BETWEEN :startDate AND :endDate")
     long countByHabitIdAndDateRange(
             @Param("habitId") Long habitId,
             @Param("startDate") LocalDate startDate,
@@ -48,11 +104,41 @@ public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
     /**
      * Sum values for a habit within a date range.
      * Useful for totaling minutes, counts, etc.
+     * Reads habit_daily_rollup: one row per day instead of one per log.
      */
-    @Query("SELECT COALESCE(SUM(hl.value), 0) FROM HabitLog hl WHERE hl.habit.id = :habitId " +
-           "AND hl.logDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(r.valueSum), 0) FROM HabitDailyRollup r WHERE r.habitId = :habitId " +
+           "AND r.logDate BETWEEN :startDate AND :endDate")
     long sumValueByHabitIdAndDateRange(
             @Param("habitId") Long habitId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Distinct (habit, day) pairs logged within a date range, across all habits.
+     * Ordered by habit then day so callers can split the result per habit
+     * in a single pass. Used by the streak engine instead of per-day lookups.
+     * Reads habit_daily_rollup, which already holds one row per habit-day.
+     */
+    @Query("SELECT new com.dali.wellness.tracking.dto.HabitLogDay(r.habitId, r.logDate) " +
+           "FROM HabitDailyRollup r WHERE r.logDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY r.habitId, r.logDate")
+    List<HabitLogDay> findDistinctLogDaysInRange(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Log count and value sum for EVERY habit within a date range, in one statement.
+     * LEFT JOIN keeps habits with no logs (zero totals), so the weekly report
+     * needs no separate habit lookup and no per-habit count queries.
+     * Joins habit_daily_rollup: cost grows with days x habits, not log volume.
+     */
+    @Query("SELECT new com.dali.wellness.tracking.dto.HabitLogTotals(" +
+           "h.id, h.name, h.category, h.targetPerWeek, COALESCE(SUM(r.logCount), 0L), COALESCE(SUM(r.valueSum), 0L)) " +
+           "FROM Habit h LEFT JOIN HabitDailyRollup r ON r.habitId = h.id " +
+           "AND r.logDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY h.id, h.name, h.category, h.targetPerWeek " +
+           "ORDER BY h.id")
+    List<HabitLogTotals> findTotalsPerHabitInRange(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 }
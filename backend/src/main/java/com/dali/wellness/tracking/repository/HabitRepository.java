@@ -1,9 +1,13 @@
 package com.dali.wellness.tracking.repository;
 
 import com.dali.wellness.tracking.entity.Habit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,4 +48,22 @@ public interface HabitRepository extends JpaRepository<Habit, Long> {
      * Used by intake service to match AI-generated habit names.
      */
     Optional<Habit> findByNameIgnoreCase(String name);
+
+    /**
+     * Which of the given ids belong to existing habits.
+     * One query to validate a whole bulk upload, without loading entities.
+     */
+    @Query("SELECT h.id FROM Habit h WHERE h.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page: habits with id > afterId (0 for the first page),
+     * optionally in one category, in id order.
+     */
+    @Query("SELECT h FROM Habit h WHERE (:category IS NULL OR h.category = :category) " +
+           "AND h.id > :afterId ORDER BY h.id")
+    List<Habit> findPage(
+            @Param("category") String category,
+            @Param("afterId") long afterId,
+            Limit limit);
 }
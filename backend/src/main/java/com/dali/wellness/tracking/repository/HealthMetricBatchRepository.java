@@ -0,0 +1,59 @@
+package com.dali.wellness.tracking.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.dali.wellness.tracking.entity.HealthMetric;
+
+/**
+ * HealthMetric Batch Repository
+ * ──────────────────────────────
+ * JDBC batch inserts for streaming imports.
+ *
+ * Same reasoning as HabitLogBatchRepository: IDENTITY ids stop Hibernate
+ * from batching, and entities saved through JPA stay in the persistence
+ * context (open-session-in-view keeps it for the whole request), so an
+ * import through saveAll would grow with the file. Rows written here are
+ * never managed.
+ */
+@Repository
+public class HealthMetricBatchRepository {
+
+    private static final String INSERT_METRIC =
+            "INSERT INTO health_metric (recorded_at, sleep_hours, mood_score, stress_level, energy_level, note) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HealthMetricBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert metrics in chunks of {@code batchSize}. Ids are not read back.
+     */
+    public void insertAll(List<HealthMetric> metrics, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_METRIC, metrics, batchSize, (ps, m) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(m.getRecordedAt()));
+            setNullable(ps, 2, m.getSleepHours(), Types.DOUBLE);
+            setNullable(ps, 3, m.getMoodScore(), Types.INTEGER);
+            setNullable(ps, 4, m.getStressLevel(), Types.INTEGER);
+            setNullable(ps, 5, m.getEnergyLevel(), Types.INTEGER);
+            setNullable(ps, 6, m.getNote(), Types.VARCHAR);
+        });
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value != null) {
+            ps.setObject(index, value, sqlType);
+        } else {
+            ps.setNull(index, sqlType);
+        }
+    }
+}
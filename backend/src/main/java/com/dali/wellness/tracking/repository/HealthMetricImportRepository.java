@@ -0,0 +1,14 @@
+package com.dali.wellness.tracking.repository;
+
+import com.dali.wellness.tracking.entity.HealthMetricImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * HealthMetricImport Repository
+ * ──────────────────────────────
+ * Progress records for streaming health-metric imports.
+ */
+@Repository
+public interface HealthMetricImportRepository extends JpaRepository<HealthMetricImport, String> {
+}
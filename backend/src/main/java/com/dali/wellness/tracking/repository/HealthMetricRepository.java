@@ -1,13 +1,21 @@
 package com.dali.wellness.tracking.repository;
 
+import com.dali.wellness.tracking.dto.HealthMetricRow;
 import com.dali.wellness.tracking.entity.HealthMetric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * HealthMetric Repository
@@ -17,6 +25,11 @@ import java.util.List;
 @Repository
 public interface HealthMetricRepository extends JpaRepository<HealthMetric, Long> {
 
+    /**
+     * JDBC fetch size for export streams: rows held by the driver at a time.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
     /**
      * Find all metrics ordered by most recent first.
      */
@@ -28,6 +41,53 @@ public interface HealthMetricRepository extends JpaRepository<HealthMetric, Long
     List<HealthMetric> findByRecordedAtBetweenOrderByRecordedAtDesc(
             LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Keyset page of metrics, newest first, optionally within start/end.
+     * Rows strictly after the cursor (afterTime, afterId) in (recorded_at DESC, id DESC)
+     * order; afterTime null for the first page. Served by idx_health_metric_recorded
+     * (InnoDB appends the primary key id to every secondary index).
+     */
+    @Query("SELECT hm FROM HealthMetric hm " +
+           "WHERE (:start IS NULL OR hm.recordedAt >= :start) AND (:end IS NULL OR hm.recordedAt <= :end) " +
+           "AND (:afterTime IS NULL OR hm.recordedAt < :afterTime " +
+           "OR (hm.recordedAt = :afterTime AND hm.id < :afterId)) " +
+           "ORDER BY hm.recordedAt DESC, hm.id DESC")
+    List<HealthMetric> findPage(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") long afterId,
+            Limit limit);
+
+    /**
+     * Stream every metric, oldest first, for export.
+     * Must be consumed inside a transaction and closed; rows are fetched
+     * from the database in chunks of EXPORT_FETCH_SIZE.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.dali.wellness.tracking.dto.HealthMetricRow(" +
+           "hm.id, hm.recordedAt, hm.sleepHours, hm.moodScore, hm.stressLevel, hm.energyLevel, hm.note) " +
+           "FROM HealthMetric hm ORDER BY hm.recordedAt, hm.id")
+    Stream<HealthMetricRow> streamAllRows();
+
+    /**
+     * Stream metrics within a date/time range, oldest first, for export.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.dali.wellness.tracking.dto.HealthMetricRow(" +
+           "hm.id, hm.recordedAt, hm.sleepHours, hm.moodScore, hm.stressLevel, hm.energyLevel, hm.note) " +
+           "FROM HealthMetric hm WHERE hm.recordedAt BETWEEN :start AND :end " +
+           "ORDER BY hm.recordedAt, hm.id")
+    Stream<HealthMetricRow> streamRowsBetween(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Find the most recent metric within a date/time range.
+     */
+    Optional<HealthMetric> findFirstByRecordedAtBetweenOrderByRecordedAtDesc(
+            LocalDateTime start, LocalDateTime end);
+
     /**
      * Get average mood score for a period.
      */
@@ -63,4 +123,12 @@ public interface HealthMetricRepository extends JpaRepository<HealthMetric, Long
     Double avgSleepHoursBetween(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
+
+    /**
+     * Retention: delete raw readings recorded before the cutoff.
+     * Their totals live on in health_metric_rollup.
+     */
+    @Modifying
+    @Query("DELETE FROM HealthMetric hm WHERE hm.recordedAt < :cutoff")
+    int deleteRecordedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,94 @@
+package com.dali.wellness.tracking.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.dali.wellness.tracking.entity.HealthMetricRollup;
+import com.dali.wellness.tracking.entity.MetricAggregate;
+
+/**
+ * HealthMetricRollup Batch Repository
+ * ────────────────────────────────────
+ * Adds bucket deltas to health_metric_rollup with JDBC batches.
+ *
+ * Each row is one upsert: counts and sums are added, min/max are widened
+ * (LEAST/GREATEST, with COALESCE so a NULL side does not win). Concurrent
+ * writers to the same bucket therefore never lose each other's readings.
+ */
+@Repository
+public class HealthMetricRollupBatchRepository {
+
+    private static final String[] METRICS = {"sleep", "mood", "stress", "energy"};
+
+    private static final String UPSERT = buildUpsert();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HealthMetricRollupBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add each bucket's counts, sums and extremes, in chunks of {@code batchSize}.
+     */
+    public void upsertAll(List<HealthMetricRollup> deltas, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT, deltas, batchSize, (ps, r) -> {
+            int i = 1;
+            ps.setString(i++, r.getResolution().name());
+            ps.setTimestamp(i++, Timestamp.valueOf(r.getBucketStart()));
+            ps.setLong(i++, r.getRecordCount());
+            for (MetricAggregate m : aggregates(r)) {
+                ps.setLong(i++, m.getCount());
+                ps.setDouble(i++, m.getSum());
+                setNullable(ps, i++, m.getMin());
+                setNullable(ps, i++, m.getMax());
+            }
+            ps.setLong(i++, r.getRecordCount());
+            for (MetricAggregate m : aggregates(r)) {
+                ps.setLong(i++, m.getCount());
+                ps.setDouble(i++, m.getSum());
+                setNullable(ps, i++, m.getMin());
+                setNullable(ps, i++, m.getMin());
+                setNullable(ps, i++, m.getMax());
+                setNullable(ps, i++, m.getMax());
+            }
+        });
+    }
+
+    private static MetricAggregate[] aggregates(HealthMetricRollup r) {
+        return new MetricAggregate[] {r.getSleepHours(), r.getMoodScore(), r.getStressLevel(), r.getEnergyLevel()};
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static String buildUpsert() {
+        StringBuilder columns = new StringBuilder("resolution, bucket_start, record_count");
+        StringBuilder values = new StringBuilder("?, ?, ?");
+        StringBuilder updates = new StringBuilder("record_count = record_count + ?");
+        for (String m : METRICS) {
+            columns.append(", ").append(m).append("_count, ").append(m).append("_sum, ")
+                    .append(m).append("_min, ").append(m).append("_max");
+            values.append(", ?, ?, ?, ?");
+            updates.append(", ").append(m).append("_count = ").append(m).append("_count + ?")
+                    .append(", ").append(m).append("_sum = ").append(m).append("_sum + ?")
+                    .append(", ").append(m).append("_min = LEAST(COALESCE(").append(m).append("_min, ?), COALESCE(?, ")
+                    .append(m).append("_min))")
+                    .append(", ").append(m).append("_max = GREATEST(COALESCE(").append(m).append("_max, ?), COALESCE(?, ")
+                    .append(m).append("_max))");
+        }
+        return "INSERT INTO health_metric_rollup (" + columns + ") VALUES (" + values + ") " +
+               "ON DUPLICATE KEY UPDATE " + updates;
+    }
+}
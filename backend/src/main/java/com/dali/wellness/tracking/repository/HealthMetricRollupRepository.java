@@ -0,0 +1,96 @@
+package com.dali.wellness.tracking.repository;
+
+import com.dali.wellness.tracking.dto.DailyHealthAverages;
+import com.dali.wellness.tracking.entity.HealthMetricRollup;
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * HealthMetricRollup Repository
+ * ──────────────────────────────
+ * Reads and range deletes of the downsampled health metric tiers.
+ * Incremental upserts go through HealthMetricRollupBatchRepository.
+ */
+@Repository
+public interface HealthMetricRollupRepository extends JpaRepository<HealthMetricRollup, HealthMetricRollup.Key> {
+
+    /**
+     * Bucket start as a date plus sum / count per metric (NULL when not recorded).
+     */
+    String AVERAGES = "CAST(r.bucketStart AS LocalDate), " +
+            "r.sleepHours.sum / NULLIF(r.sleepHours.count, 0), r.moodScore.sum / NULLIF(r.moodScore.count, 0), " +
+            "r.stressLevel.sum / NULLIF(r.stressLevel.count, 0), r.energyLevel.sum / NULLIF(r.energyLevel.count, 0)";
+
+    /**
+     * Buckets of one tier starting in [from, to), newest first.
+     */
+    @Query("SELECT r FROM HealthMetricRollup r WHERE r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart DESC")
+    List<HealthMetricRollup> findBuckets(
+            @Param("resolution") Resolution resolution,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Per-day metric averages from the DAY tier for days in [from, to), oldest first.
+     */
+    default List<DailyHealthAverages> findDailyAverages(LocalDate from, LocalDate to) {
+        return findAverages(Resolution.DAY, from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    /**
+     * Per-day metric averages from the DAY tier over the whole history, oldest first.
+     */
+    default List<DailyHealthAverages> findAllDailyAverages() {
+        return findAllAverages(Resolution.DAY);
+    }
+
+    @Query("SELECT new com.dali.wellness.tracking.dto.DailyHealthAverages(" + AVERAGES + ") " +
+           "FROM HealthMetricRollup r WHERE r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<DailyHealthAverages> findAverages(
+            @Param("resolution") Resolution resolution,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.dali.wellness.tracking.dto.DailyHealthAverages(" + AVERAGES + ") " +
+           "FROM HealthMetricRollup r WHERE r.resolution = :resolution ORDER BY r.bucketStart")
+    List<DailyHealthAverages> findAllAverages(@Param("resolution") Resolution resolution);
+
+    long countByResolution(Resolution resolution);
+
+    /**
+     * Remove the buckets of one tier starting in [from, to).
+     */
+    @Modifying
+    @Query("DELETE FROM HealthMetricRollup r WHERE r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(
+            @Param("resolution") Resolution resolution,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Remove the buckets of one tier starting before the cutoff (retention).
+     */
+    @Modifying
+    @Query("DELETE FROM HealthMetricRollup r WHERE r.resolution = :resolution AND r.bucketStart < :cutoff")
+    int deleteBefore(
+            @Param("resolution") Resolution resolution,
+            @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Remove every bucket (first step of a full rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM HealthMetricRollup r")
+    int deleteAllRows();
+}
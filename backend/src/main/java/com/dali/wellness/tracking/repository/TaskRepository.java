@@ -1,13 +1,40 @@
 package com.dali.wellness.tracking.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.dali.wellness.tracking.dto.TaskSummary;
 import com.dali.wellness.tracking.entity.Task;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByCompletedFalseOrderByDeadlineAsc();
+
+    List<Task> findByCompletedFalseAndDeadlineIsNotNullOrderByDeadlineAsc();
+
+    List<Task> findByCompletedFalseAndDeadlineBetweenOrderByDeadlineAsc(LocalDateTime from, LocalDateTime to);
+
+    List<Task> findByCompletedFalseAndDeadlineBeforeOrderByDeadlineAsc(LocalDateTime now);
+
+    List<Task> findByCompletedTrueAndCompletedAtBetweenOrderByCompletedAtDesc(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Keyset page: tasks with id > afterId (0 for the first page), in id order.
+     */
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Count open and overdue tasks in one aggregate.
+     */
+    @Query("SELECT new com.dali.wellness.tracking.dto.TaskSummary(" +
+           "COALESCE(SUM(CASE WHEN t.completed = false THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.completed = false AND t.deadline < :now THEN 1 ELSE 0 END), 0)) " +
+           "FROM Task t")
+    TaskSummary summarize(@Param("now") LocalDateTime now);
 }
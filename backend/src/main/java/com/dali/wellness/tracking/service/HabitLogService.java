@@ -1,14 +1,30 @@
 package com.dali.wellness.tracking.service;
 
+import com.dali.wellness.tracking.dto.BulkHabitLogEntry;
+import com.dali.wellness.tracking.dto.BulkHabitLogResult;
+import com.dali.wellness.tracking.dto.BulkHabitLogResult.RowResult;
+import com.dali.wellness.tracking.dto.BulkHabitLogResult.Status;
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.PageCursor;
+import com.dali.wellness.tracking.entity.Habit;
 import com.dali.wellness.tracking.entity.HabitLog;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+import com.dali.wellness.tracking.repository.HabitLogBatchRepository;
 import com.dali.wellness.tracking.repository.HabitLogRepository;
 import com.dali.wellness.tracking.repository.HabitRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * HabitLog Service
@@ -20,10 +36,30 @@ public class HabitLogService {
 
     private final HabitLogRepository habitLogRepository;
     private final HabitRepository habitRepository;
+    private final HabitLogBatchRepository habitLogBatchRepository;
+    private final HabitRollupService habitRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public HabitLogService(HabitLogRepository habitLogRepository, HabitRepository habitRepository) {
+    /**
+     * Largest accepted bulk upload (rows per request).
+     */
+    @Value("${tracking.bulk.max-entries:10000}")
+    private int bulkMaxEntries;
+
+    /**
+     * Rows per JDBC batch during bulk ingestion.
+     */
+    @Value("${tracking.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    public HabitLogService(HabitLogRepository habitLogRepository, HabitRepository habitRepository,
+                           HabitLogBatchRepository habitLogBatchRepository,
+                           HabitRollupService habitRollupService, ApplicationEventPublisher eventPublisher) {
         this.habitLogRepository = habitLogRepository;
         this.habitRepository = habitRepository;
+        this.habitLogBatchRepository = habitLogBatchRepository;
+        this.habitRollupService = habitRollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -40,6 +76,19 @@ public class HabitLogService {
         return habitLogRepository.findByHabitIdAndLogDateBetweenOrderByLogDateDesc(habitId, from, to);
     }
 
+    /**
+     * Get one page of a habit's logs, newest first, optionally within from/to.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public CursorPage<HabitLog> getLogsPage(Long habitId, LocalDate from, LocalDate to, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = CursorPage.clamp(limit);
+        List<HabitLog> rows = habitLogRepository.findPageByHabitId(habitId, from, to,
+                after != null ? after.keyAsDate() : null, after != null ? after.id() : 0L,
+                Limit.of(size + 1));
+        return CursorPage.of(rows, size, l -> new PageCursor(l.getLogDate().toString(), l.getId()));
+    }
+
     /**
      * Get a specific log by ID.
      */
@@ -65,7 +114,10 @@ public class HabitLogService {
                     if (log.getValue() == null) {
                         log.setValue(1);
                     }
-                    return habitLogRepository.save(log);
+                    HabitLog saved = habitLogRepository.save(log);
+                    habitRollupService.onLogAdded(saved);
+                    publishChange();
+                    return saved;
                 });
     }
 
@@ -80,10 +132,66 @@ public class HabitLogService {
                     log.setHabit(habit);
                     log.setLogDate(LocalDate.now());
                     log.setValue(1);
-                    return habitLogRepository.save(log);
+                    HabitLog saved = habitLogRepository.save(log);
+                    habitRollupService.onLogAdded(saved);
+                    publishChange();
+                    return saved;
                 });
     }
 
+    /**
+     * Bulk insert logs across any number of habits.
+     *
+     * All habit ids are checked with one query; rows pointing to unknown
+     * habits (or with invalid fields) are rejected, the rest are inserted
+     * with JDBC batches and counted into the rollup in the same transaction.
+     *
+     * @return per-row results, or empty if the upload exceeds tracking.bulk.max-entries
+     */
+    @Transactional
+    public Optional<BulkHabitLogResult> bulkCreate(List<BulkHabitLogEntry> entries) {
+        if (entries.size() > bulkMaxEntries) {
+            return Optional.empty();
+        }
+
+        Set<Long> requestedIds = new HashSet<>();
+        for (BulkHabitLogEntry entry : entries) {
+            if (entry != null && entry.habitId() != null) {
+                requestedIds.add(entry.habitId());
+            }
+        }
+        Set<Long> knownIds = requestedIds.isEmpty()
+                ? Set.of() : new HashSet<>(habitRepository.findExistingIds(requestedIds));
+
+        LocalDate today = LocalDate.now();
+        List<HabitLog> logs = new ArrayList<>(entries.size());
+        List<RowResult> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            BulkHabitLogEntry entry = entries.get(i);
+            String error = validate(entry, knownIds);
+            if (error != null) {
+                rows.add(new RowResult(i, Status.REJECTED, error));
+                continue;
+            }
+            // Reference only: the id is all the JDBC insert needs
+            Habit habit = new Habit();
+            habit.setId(entry.habitId());
+            logs.add(new HabitLog(null, habit,
+                    Objects.requireNonNullElse(entry.logDate(), today),
+                    Objects.requireNonNullElse(entry.value(), 1),
+                    entry.note(), null));
+            rows.add(new RowResult(i, Status.CREATED, null));
+        }
+
+        if (!logs.isEmpty()) {
+            habitLogBatchRepository.insertAll(logs, bulkBatchSize);
+            habitRollupService.onLogsAdded(logs, bulkBatchSize);
+            publishChange();
+        }
+        return Optional.of(new BulkHabitLogResult(
+                entries.size(), logs.size(), entries.size() - logs.size(), rows));
+    }
+
     /**
      * Update a log.
      */
@@ -91,6 +199,8 @@ public class HabitLogService {
     public Optional<HabitLog> updateLog(Long logId, HabitLog updated) {
         return habitLogRepository.findById(logId)
                 .map(existing -> {
+                    habitRollupService.onLogRemoved(
+                            existing.getHabit().getId(), existing.getLogDate(), existing.getValue());
                     if (updated.getLogDate() != null) {
                         existing.setLogDate(updated.getLogDate());
                     }
@@ -98,7 +208,10 @@ public class HabitLogService {
                         existing.setValue(updated.getValue());
                     }
                     existing.setNote(updated.getNote());
-                    return habitLogRepository.save(existing);
+                    HabitLog saved = habitLogRepository.save(existing);
+                    habitRollupService.onLogAdded(saved);
+                    publishChange();
+                    return saved;
                 });
     }
 
@@ -107,11 +220,15 @@ public class HabitLogService {
      */
     @Transactional
     public boolean deleteLog(Long logId) {
-        if (habitLogRepository.existsById(logId)) {
-            habitLogRepository.deleteById(logId);
-            return true;
-        }
-        return false;
+        return habitLogRepository.findById(logId)
+                .map(existing -> {
+                    habitRollupService.onLogRemoved(
+                            existing.getHabit().getId(), existing.getLogDate(), existing.getValue());
+                    habitLogRepository.delete(existing);
+                    publishChange();
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
@@ -122,16 +239,33 @@ public class HabitLogService {
     }
 
     /**
-     * Count completions in a date range.
+     * Count completions in a date range (read from the daily rollup).
      */
     public long countCompletions(Long habitId, LocalDate from, LocalDate to) {
         return habitLogRepository.countByHabitIdAndDateRange(habitId, from, to);
     }
 
     /**
-     * Sum values in a date range.
+     * Sum values in a date range (read from the daily rollup).
      */
     public long sumValues(Long habitId, LocalDate from, LocalDate to) {
         return habitLogRepository.sumValueByHabitIdAndDateRange(habitId, from, to);
     }
+
+    private String validate(BulkHabitLogEntry entry, Set<Long> knownIds) {
+        if (entry == null || entry.habitId() == null) {
+            return "habitId is required";
+        }
+        if (!knownIds.contains(entry.habitId())) {
+            return "Habit " + entry.habitId() + " not found";
+        }
+        if (entry.note() != null && entry.note().length() > 500) {
+            return "note must be at most 500 characters";
+        }
+        return null;
+    }
+
+    private void publishChange() {
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HABIT_LOG));
+    }
 }
@@ -0,0 +1,140 @@
+package com.dali.wellness.tracking.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.entity.HabitLog;
+import com.dali.wellness.tracking.event.HabitDaysChangedEvent;
+import com.dali.wellness.tracking.event.HabitRollupRebuiltEvent;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+import com.dali.wellness.tracking.repository.HabitDailyRollupRepository;
+import com.dali.wellness.tracking.repository.HabitLogBatchRepository;
+import com.dali.wellness.tracking.repository.HabitLogBatchRepository.RollupDelta;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+
+/**
+ * HabitRollup Service
+ * ────────────────────
+ * Keeps habit_daily_rollup in step with habit_log.
+ *
+ * Incremental updates MUST run inside the caller's transaction
+ * (Propagation.MANDATORY) so a log write and its rollup delta commit or
+ * roll back together.
+ *
+ * Habit-days that gain their first log or lose their last one are
+ * published as a {@link HabitDaysChangedEvent} in the same transaction.
+ * Both are decided by the write itself (upsert result, delete count), under
+ * the row lock, so concurrent first logs of a day publish "started" once.
+ */
+@Service
+public class HabitRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HabitRollupService.class);
+
+    private final HabitDailyRollupRepository rollupRepository;
+    private final HabitLogRepository habitLogRepository;
+    private final HabitLogBatchRepository batchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public HabitRollupService(HabitDailyRollupRepository rollupRepository, HabitLogRepository habitLogRepository,
+                              HabitLogBatchRepository batchRepository, ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.habitLogRepository = habitLogRepository;
+        this.batchRepository = batchRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Count a newly saved log.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLogAdded(HabitLog log) {
+        Long habitId = log.getHabit().getId();
+        // 1 = the upsert inserted the row: first log of the day
+        if (rollupRepository.upsertDelta(habitId, log.getLogDate(), 1, valueOf(log)) == 1) {
+            eventPublisher.publishEvent(HabitDaysChangedEvent.started(
+                    List.of(new HabitLogDay(habitId, log.getLogDate()))));
+        }
+    }
+
+    /**
+     * Count a batch of newly inserted logs: deltas are summed per habit-day
+     * first, so a year of history costs one upsert per day, not per log.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLogsAdded(List<HabitLog> logs, int batchSize) {
+        Map<HabitLogDay, long[]> totals = new LinkedHashMap<>();
+        for (HabitLog log : logs) {
+            long[] t = totals.computeIfAbsent(
+                    new HabitLogDay(log.getHabit().getId(), log.getLogDate()), k -> new long[2]);
+            t[0]++;
+            t[1] += valueOf(log);
+        }
+
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        List<RollupDelta> deltas = new ArrayList<>(totals.size());
+        totals.forEach((day, t) -> deltas.add(new RollupDelta(day, t[0], t[1])));
+        List<HabitLogDay> started = batchRepository.upsertRollupDeltas(deltas, batchSize);
+        if (!started.isEmpty()) {
+            eventPublisher.publishEvent(HabitDaysChangedEvent.started(started));
+        }
+    }
+
+    /**
+     * Uncount a log that is about to be deleted or moved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLogRemoved(Long habitId, LocalDate logDate, Integer value) {
+        rollupRepository.upsertDelta(habitId, logDate, -1, value != null ? -value : 0);
+        if (rollupRepository.deleteIfEmpty(habitId, logDate) > 0) {
+            eventPublisher.publishEvent(HabitDaysChangedEvent.ended(List.of(new HabitLogDay(habitId, logDate))));
+        }
+    }
+
+    /**
+     * Backfill job: rebuild the whole rollup table from raw habit_log rows.
+     * @return number of habit-day rows written
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.insertFromHabitLogs();
+        logger.info("Rebuilt habit_daily_rollup: {} habit-day rows", rows);
+        eventPublisher.publishEvent(new HabitRollupRebuiltEvent(rows));
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HABIT_LOG));
+        return rows;
+    }
+
+    /**
+     * First start after the rollup table was introduced: backfill it
+     * so analytics do not report empty history.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && habitLogRepository.count() > 0) {
+            logger.info("habit_daily_rollup is empty but habit_log has data, backfilling...");
+            rebuild();
+        }
+    }
+
+    private long valueOf(HabitLog log) {
+        return log.getValue() != null ? log.getValue() : 0;
+    }
+}
@@ -3,10 +3,15 @@ package com.dali.wellness.tracking.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.PageCursor;
 import com.dali.wellness.tracking.entity.Habit;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
 import com.dali.wellness.tracking.repository.HabitRepository;
 
 /**
@@ -25,9 +30,11 @@ public class HabitService {
 
     // Injected by Spring via constructor
     private final HabitRepository habitRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public HabitService(HabitRepository habitRepository) {
+    public HabitService(HabitRepository habitRepository, ApplicationEventPublisher eventPublisher) {
         this.habitRepository = habitRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -56,6 +63,18 @@ public class HabitService {
         return habitRepository.findByCategory(category);
     }
 
+    /**
+     * Get one page of habits in id order, optionally filtered by category.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public CursorPage<Habit> getHabitsPage(String category, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = CursorPage.clamp(limit);
+        List<Habit> rows = habitRepository.findPage(
+                category, after != null ? after.id() : 0L, Limit.of(size + 1));
+        return CursorPage.of(rows, size, h -> PageCursor.ofId(h.getId()));
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     // WRITE OPERATIONS
     // ─────────────────────────────────────────────────────────────────────────
@@ -69,7 +88,9 @@ public class HabitService {
     public Habit createHabit(Habit habit) {
         // Ensure we're creating, not updating
         habit.setId(null);
-        return habitRepository.save(habit);
+        Habit saved = habitRepository.save(habit);
+        publishChange();
+        return saved;
     }
 
     /**
@@ -85,7 +106,9 @@ public class HabitService {
                     existing.setName(updated.getName());
                     existing.setCategory(updated.getCategory());
                     existing.setTargetPerWeek(updated.getTargetPerWeek());
-                    return habitRepository.save(existing);
+                    Habit saved = habitRepository.save(existing);
+                    publishChange();
+                    return saved;
                 });
     }
 
@@ -97,8 +120,13 @@ public class HabitService {
     public boolean deleteHabit(Long id) {
         if (habitRepository.existsById(id)) {
             habitRepository.deleteById(id);
+            publishChange();
             return true;
         }
         return false;
     }
+
+    private void publishChange() {
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HABIT));
+    }
 }
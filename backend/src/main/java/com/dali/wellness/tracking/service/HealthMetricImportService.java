@@ -0,0 +1,335 @@
+package com.dali.wellness.tracking.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dali.wellness.tracking.dto.DataFormat;
+import com.dali.wellness.tracking.dto.HealthMetricImportResult;
+import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.entity.HealthMetricImport;
+import com.dali.wellness.tracking.entity.HealthMetricImport.Status;
+import com.dali.wellness.tracking.event.HealthMetricDaysChangedEvent;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+import com.dali.wellness.tracking.repository.HealthMetricImportRepository;
+import com.dali.wellness.tracking.repository.HealthMetricBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * HealthMetric Import Service
+ * ────────────────────────────
+ * Streaming import of health metrics from CSV or NDJSON.
+ *
+ * The upload is read line by line and written in fixed-size batches, each
+ * in its own transaction together with the import's rowsCommitted offset.
+ * Rows go in through JDBC batches (HealthMetricBatchRepository) and are
+ * never managed entities, so memory holds at most one batch, whatever the
+ * file size.
+ *
+ * CSV: header row required, column names as in the JSON API
+ * (recordedAt, sleepHours, moodScore, stressLevel, energyLevel, note;
+ * case and underscores ignored, unknown columns skipped).
+ * NDJSON: one HealthMetric JSON object per line.
+ *
+ * Rows failing parsing or validation are rejected and reported; they do
+ * not stop the import. An I/O or database error stops it with status
+ * FAILED, and everything up to rowsCommitted stays stored.
+ */
+@Service
+public class HealthMetricImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthMetricImportService.class);
+
+    /**
+     * Rejected rows listed in a response (the rest are only counted).
+     */
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final HealthMetricBatchRepository batchRepository;
+    private final HealthMetricRollupService rollupService;
+    private final HealthMetricImportRepository importRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import ids currently being processed by this instance.
+     */
+    private final Set<String> activeImports = ConcurrentHashMap.newKeySet();
+
+    @Value("${tracking.import.batch-size:500}")
+    private int batchSize;
+
+    public HealthMetricImportService(HealthMetricBatchRepository batchRepository,
+                                     HealthMetricRollupService rollupService,
+                                     HealthMetricImportRepository importRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper, Validator validator,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.batchRepository = batchRepository;
+        this.rollupService = rollupService;
+        this.importRepository = importRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get the progress of an import.
+     */
+    public Optional<HealthMetricImport> getImport(String importId) {
+        return importRepository.findById(importId);
+    }
+
+    /**
+     * Import metrics from a CSV or NDJSON stream.
+     *
+     * @param importId Existing id to resume (the first rowsCommitted data rows
+     *                 are skipped), a new id to choose one, or null to generate one.
+     * @return The result, or empty if this import id is already running.
+     */
+    public Optional<HealthMetricImportResult> importMetrics(InputStream body, DataFormat format, String importId) {
+        String id = importId != null && !importId.isBlank() ? importId : UUID.randomUUID().toString();
+        if (!activeImports.add(id)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(run(body, format, id));
+        } finally {
+            activeImports.remove(id);
+        }
+    }
+
+    private HealthMetricImportResult run(InputStream body, DataFormat format, String id) {
+        HealthMetricImport job = importRepository.findById(id)
+                .orElseGet(() -> new HealthMetricImport(id, format));
+        if (job.getStatus() == Status.COMPLETED) {
+            return toResult(job, 0, List.of());
+        }
+        job.setFormat(format);
+        job.setStatus(Status.RUNNING);
+        job.setLastError(null);
+        job = importRepository.save(job);
+
+        long resumeAt = job.getRowsCommitted();
+        List<String> errors = new ArrayList<>();
+        List<HealthMetric> batch = new ArrayList<>(batchSize);
+        long row = 0;
+        long lineNumber = 0;
+        long batchRejected = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            if (format == DataFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                columns = header != null ? parseHeader(header) : Map.of();
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                if (row <= resumeAt) {
+                    continue;
+                }
+
+                try {
+                    HealthMetric metric = format == DataFormat.CSV ? parseCsv(line, columns) : parseJson(line);
+                    String error = validate(metric);
+                    if (error != null) {
+                        throw new IllegalArgumentException(error);
+                    }
+                    batch.add(metric);
+                } catch (Exception e) {
+                    batchRejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("line " + lineNumber + ": " + firstLine(e.getMessage()));
+                    }
+                }
+
+                if (batch.size() + batchRejected >= batchSize) {
+                    job = commit(job, batch, batchRejected, row, false);
+                    batch.clear();
+                    batchRejected = 0;
+                }
+            }
+            job = commit(job, batch, batchRejected, row, true);
+        } catch (IOException | RuntimeException e) {
+            job = markFailed(id, e);
+        }
+
+        return toResult(job, Math.min(resumeAt, row), errors);
+    }
+
+    /**
+     * Store one batch and advance the offset atomically.
+     */
+    private HealthMetricImport commit(HealthMetricImport job, List<HealthMetric> batch, long rejected,
+                                      long rowsCommitted, boolean last) {
+        return transactionTemplate.execute(status -> {
+            batchRepository.insertAll(batch, batchSize);
+            rollupService.onMetricsAdded(batch);
+            job.setRowsCommitted(Math.max(job.getRowsCommitted(), rowsCommitted));
+            job.setRowsImported(job.getRowsImported() + batch.size());
+            job.setRowsRejected(job.getRowsRejected() + rejected);
+            if (last) {
+                job.setStatus(Status.COMPLETED);
+            }
+            HealthMetricImport saved = importRepository.save(job);
+            if (!batch.isEmpty()) {
+                eventPublisher.publishEvent(new HealthMetricDaysChangedEvent(batch.stream()
+                        .map(m -> m.getRecordedAt().toLocalDate())
+                        .collect(Collectors.toSet())));
+                eventPublisher.publishEvent(
+                        new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HEALTH_METRIC));
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Record the failure on the last committed state of the import.
+     */
+    private HealthMetricImport markFailed(String id, Exception e) {
+        HealthMetricImport job = importRepository.findById(id).orElseThrow();
+        job.setStatus(Status.FAILED);
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        job.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        logger.warn("Health metric import {} failed after {} committed rows", id, job.getRowsCommitted(), e);
+        return importRepository.save(job);
+    }
+
+    private HealthMetricImportResult toResult(HealthMetricImport job, long skipped, List<String> errors) {
+        return new HealthMetricImportResult(job.getId(), job.getStatus(), job.getRowsCommitted(),
+                job.getRowsImported(), job.getRowsRejected(), skipped, job.getLastError(), errors);
+    }
+
+    private String firstLine(String message) {
+        if (message == null) {
+            return "invalid row";
+        }
+        int end = message.indexOf('\n');
+        return end >= 0 ? message.substring(0, end) : message;
+    }
+
+    private HealthMetric parseJson(String line) throws IOException {
+        HealthMetric metric = objectMapper.readValue(line, HealthMetric.class);
+        metric.setId(null);
+        return metric;
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).replace("_", "").replace(" ", "").toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    private HealthMetric parseCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        HealthMetric metric = new HealthMetric();
+        metric.setRecordedAt(parseTimestamp(field(fields, columns, "recordedat")));
+        String sleep = field(fields, columns, "sleephours");
+        metric.setSleepHours(sleep != null ? Double.valueOf(sleep) : null);
+        metric.setMoodScore(parseInt(field(fields, columns, "moodscore")));
+        metric.setStressLevel(parseInt(field(fields, columns, "stresslevel")));
+        metric.setEnergyLevel(parseInt(field(fields, columns, "energylevel")));
+        metric.setNote(field(fields, columns, "note"));
+        return metric;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer parseInt(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    private LocalDateTime parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        // Accept a bare date for daily check-ins: 2025-12-04 → 2025-12-04T00:00
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    /**
+     * Split one CSV line; supports double-quoted fields with "" escapes
+     * (fields spanning several lines are not supported).
+     */
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private String validate(HealthMetric metric) {
+        if (metric.getRecordedAt() == null) {
+            return "recordedAt is required";
+        }
+        for (ConstraintViolation<HealthMetric> violation : validator.validate(metric)) {
+            return violation.getMessage();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,299 @@
+package com.dali.wellness.tracking.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dali.wellness.tracking.dto.HealthMetricRow;
+import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.entity.HealthMetricRollup;
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
+import com.dali.wellness.tracking.repository.HealthMetricRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupBatchRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupRepository;
+
+/**
+ * HealthMetricRollup Service
+ * ───────────────────────────
+ * Keeps the HOUR / DAY / WEEK / MONTH tiers of health_metric_rollup in step
+ * with health_metric, and applies the retention policy.
+ *
+ * Incremental updates MUST run inside the caller's transaction
+ * (Propagation.MANDATORY), like HabitRollupService:
+ *
+ *   • New readings → their count/sum/min/max are upserted into one bucket
+ *     per tier (counts add up, min/max widen)
+ *   • Edited or deleted readings → min/max cannot be "un-widened", so the
+ *     touched days are recomputed from raw rows, then their weeks and
+ *     months from the DAY tier. Days before the raw cutoff cannot be
+ *     recomputed, so their readings are refused (PrunedDayException)
+ *
+ * Retention (daily, health.retention.*): raw rows older than raw-days
+ * (opt-in, off by default) and HOUR buckets older than hourly-days are deleted; DAY, WEEK and MONTH
+ * buckets are kept forever. A day before the raw cutoff may still get
+ * backdated readings, but its buckets hold more than those rows, so it is
+ * only ever added to.
+ */
+@Service
+public class HealthMetricRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthMetricRollupService.class);
+
+    private static final Resolution[] TIERS = Resolution.values();
+
+    private final HealthMetricRollupRepository rollupRepository;
+    private final HealthMetricRollupBatchRepository batchRepository;
+    private final HealthMetricRepository healthMetricRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tracking.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Days of raw health_metric rows to keep (0 = keep forever, the default).
+     * Opt-in: pruned readings cannot be restored.
+     */
+    @Value("${health.retention.raw-days:0}")
+    private int rawRetentionDays;
+
+    /**
+     * Days of HOUR buckets to keep (0 = keep forever).
+     */
+    @Value("${health.retention.hourly-days:90}")
+    private int hourlyRetentionDays;
+
+    public HealthMetricRollupService(HealthMetricRollupRepository rollupRepository,
+                                     HealthMetricRollupBatchRepository batchRepository,
+                                     HealthMetricRepository healthMetricRepository,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.batchRepository = batchRepository;
+        this.healthMetricRepository = healthMetricRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Count newly saved readings: summed per bucket first, so a batch costs
+     * one upsert per touched bucket, not per reading and tier.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onMetricsAdded(Collection<HealthMetric> metrics) {
+        Map<HealthMetricRollup.Key, HealthMetricRollup> buckets = new LinkedHashMap<>();
+        for (HealthMetric m : metrics) {
+            for (Resolution tier : TIERS) {
+                bucket(buckets, tier, m.getRecordedAt())
+                        .add(m.getSleepHours(), m.getMoodScore(), m.getStressLevel(), m.getEnergyLevel());
+            }
+        }
+        if (!buckets.isEmpty()) {
+            batchRepository.upsertAll(new ArrayList<>(buckets.values()), batchSize);
+        }
+    }
+
+    /**
+     * Re-count an edited reading that was on previousDay.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onMetricUpdated(LocalDate previousDay, HealthMetric saved) {
+        LocalDate day = saved.getRecordedAt().toLocalDate();
+        if (!day.equals(previousDay) && !isRawKept(day)) {
+            // Moved into a day whose raw rows were dropped: recomputing it
+            // from raw would lose its history, so only add the reading
+            onMetricsAdded(List.of(saved));
+            onDaysChanged(Set.of(previousDay));
+        } else {
+            onDaysChanged(new TreeSet<>(List.of(previousDay, day)));
+        }
+    }
+
+    /**
+     * Recompute the buckets of days whose readings were edited or deleted.
+     * Raw rows of these days must still exist (inside raw retention).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDaysChanged(Set<LocalDate> days) {
+        for (LocalDate day : days) {
+            requireRawKept(day);
+        }
+        Set<LocalDateTime> weeks = new TreeSet<>();
+        Set<LocalDateTime> months = new TreeSet<>();
+        for (LocalDate day : days) {
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = start.plusDays(1);
+            rollupRepository.deleteBuckets(Resolution.HOUR, start, end);
+            rollupRepository.deleteBuckets(Resolution.DAY, start, end);
+
+            Map<HealthMetricRollup.Key, HealthMetricRollup> buckets = new LinkedHashMap<>();
+            try (Stream<HealthMetricRow> rows =
+                         healthMetricRepository.streamRowsBetween(start, day.atTime(LocalTime.MAX))) {
+                rows.forEach(r -> {
+                    bucket(buckets, Resolution.HOUR, r.recordedAt()).add(r.sleepHours(), r.moodScore(),
+                            r.stressLevel(), r.energyLevel());
+                    bucket(buckets, Resolution.DAY, r.recordedAt()).add(r.sleepHours(), r.moodScore(),
+                            r.stressLevel(), r.energyLevel());
+                });
+            }
+            if (!buckets.isEmpty()) {
+                batchRepository.upsertAll(new ArrayList<>(buckets.values()), batchSize);
+            }
+            weeks.add(Resolution.WEEK.bucketStart(start));
+            months.add(Resolution.MONTH.bucketStart(start));
+        }
+        weeks.forEach(week -> recomputeFromDays(Resolution.WEEK, week));
+        months.forEach(month -> recomputeFromDays(Resolution.MONTH, month));
+    }
+
+    /**
+     * Retention job: drop raw rows and HOUR buckets past their retention.
+     */
+    @Scheduled(cron = "${health.retention.cron:0 30 3 * * *}")
+    @Transactional
+    public void applyRetention() {
+        int rawRows = 0;
+        int hourRows = 0;
+        LocalDate rawCutoff = rawCutoff();
+        if (rawCutoff != null) {
+            rawRows = healthMetricRepository.deleteRecordedBefore(rawCutoff.atStartOfDay());
+        }
+        if (hourlyRetentionDays > 0) {
+            hourRows = rollupRepository.deleteBefore(Resolution.HOUR,
+                    LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay());
+        }
+        if (rawRows > 0 || hourRows > 0) {
+            logger.info("Health metric retention: deleted {} raw rows, {} hourly buckets", rawRows, hourRows);
+            eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HEALTH_METRIC));
+        }
+    }
+
+    /**
+     * Backfill job: rebuild every tier from the raw health_metric rows.
+     * Buckets of days already dropped by retention are lost, so this only
+     * runs automatically while the table is empty.
+     * @return number of buckets written
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+
+        // Rows stream oldest first: HOUR and DAY buckets are complete (and
+        // written) once the next day starts, WEEK and MONTH are kept until the end
+        Map<HealthMetricRollup.Key, HealthMetricRollup> open = new LinkedHashMap<>();
+        Map<HealthMetricRollup.Key, HealthMetricRollup> coarse = new LinkedHashMap<>();
+        LocalDate[] currentDay = {null};
+        int[] written = {0};
+        try (Stream<HealthMetricRow> rows = healthMetricRepository.streamAllRows()) {
+            rows.forEach(r -> {
+                LocalDate day = r.recordedAt().toLocalDate();
+                if (!day.equals(currentDay[0]) && open.size() >= batchSize) {
+                    batchRepository.upsertAll(new ArrayList<>(open.values()), batchSize);
+                    written[0] += open.size();
+                    open.clear();
+                }
+                currentDay[0] = day;
+                for (Resolution tier : TIERS) {
+                    Map<HealthMetricRollup.Key, HealthMetricRollup> target =
+                            tier == Resolution.HOUR || tier == Resolution.DAY ? open : coarse;
+                    bucket(target, tier, r.recordedAt())
+                            .add(r.sleepHours(), r.moodScore(), r.stressLevel(), r.energyLevel());
+                }
+            });
+        }
+        open.putAll(coarse);
+        batchRepository.upsertAll(new ArrayList<>(open.values()), batchSize);
+        written[0] += open.size();
+
+        logger.info("Rebuilt health_metric_rollup: {} buckets", written[0]);
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HEALTH_METRIC));
+        return written[0];
+    }
+
+    /**
+     * First start after the tiers were introduced: backfill them before
+     * anything reads them (correlations are backfilled from the DAY tier).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && healthMetricRepository.count() > 0) {
+            logger.info("health_metric_rollup is empty but health_metric has data, backfilling...");
+            rebuild();
+        }
+    }
+
+    /**
+     * Whether the raw rows of a day are still complete, i.e. its buckets can
+     * be recomputed from them.
+     */
+    public boolean isRawKept(LocalDate day) {
+        LocalDate cutoff = rawCutoff();
+        return cutoff == null || !day.isBefore(cutoff);
+    }
+
+    /**
+     * Refuse to change a reading of a day whose raw rows were dropped.
+     */
+    public void requireRawKept(LocalDate day) {
+        if (!isRawKept(day)) {
+            throw new PrunedDayException(day);
+        }
+    }
+
+    /**
+     * The reading lies on a day whose raw rows were dropped by retention:
+     * its buckets cannot be recomputed, so it can no longer be edited or deleted.
+     */
+    public static class PrunedDayException extends IllegalStateException {
+        public PrunedDayException(LocalDate day) {
+            super("Raw readings of " + day + " were dropped by retention; its readings can no longer be changed");
+        }
+    }
+
+    /**
+     * First day whose raw rows are kept, or null when raw rows are kept forever.
+     */
+    private LocalDate rawCutoff() {
+        return rawRetentionDays > 0 ? LocalDate.now().minusDays(rawRetentionDays) : null;
+    }
+
+    private void recomputeFromDays(Resolution tier, LocalDateTime start) {
+        LocalDateTime end = tier.next(start);
+        HealthMetricRollup total = new HealthMetricRollup(tier, start);
+        for (HealthMetricRollup day : rollupRepository.findBuckets(Resolution.DAY, start, end)) {
+            total.add(day);
+        }
+        rollupRepository.deleteBuckets(tier, start, end);
+        if (total.getRecordCount() > 0) {
+            batchRepository.upsertAll(List.of(total), batchSize);
+        }
+    }
+
+    private HealthMetricRollup bucket(Map<HealthMetricRollup.Key, HealthMetricRollup> buckets,
+                                      Resolution tier, LocalDateTime time) {
+        LocalDateTime start = tier.bucketStart(time);
+        return buckets.computeIfAbsent(new HealthMetricRollup.Key(tier, start),
+                k -> new HealthMetricRollup(tier, start));
+    }
+}
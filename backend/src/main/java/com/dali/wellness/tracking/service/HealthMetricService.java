@@ -3,13 +3,23 @@ package com.dali.wellness.tracking.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.HealthMetricRow;
+import com.dali.wellness.tracking.dto.PageCursor;
 import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.event.HealthMetricDaysChangedEvent;
+import com.dali.wellness.tracking.event.HealthMetricRecordedEvent;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
 import com.dali.wellness.tracking.repository.HealthMetricRepository;
 
 /**
@@ -21,9 +31,14 @@ import com.dali.wellness.tracking.repository.HealthMetricRepository;
 public class HealthMetricService {
 
     private final HealthMetricRepository healthMetricRepository;
+    private final HealthMetricRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public HealthMetricService(HealthMetricRepository healthMetricRepository) {
+    public HealthMetricService(HealthMetricRepository healthMetricRepository, HealthMetricRollupService rollupService,
+                               ApplicationEventPublisher eventPublisher) {
         this.healthMetricRepository = healthMetricRepository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,6 +66,21 @@ public class HealthMetricService {
         return healthMetricRepository.findByRecordedAtBetweenOrderByRecordedAtDesc(start, end);
     }
 
+    /**
+     * Get one page of metrics, newest first, optionally within from/to (inclusive days).
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public CursorPage<HealthMetric> getMetricsPage(LocalDate from, LocalDate to, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = CursorPage.clamp(limit);
+        List<HealthMetric> rows = healthMetricRepository.findPage(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.atTime(LocalTime.MAX) : null,
+                after != null ? after.keyAsDateTime() : null, after != null ? after.id() : 0L,
+                Limit.of(size + 1));
+        return CursorPage.of(rows, size, m -> new PageCursor(m.getRecordedAt().toString(), m.getId()));
+    }
+
     /**
      * Create a new health metric.
      */
@@ -60,16 +90,26 @@ public class HealthMetricService {
         if (metric.getRecordedAt() == null) {
             metric.setRecordedAt(LocalDateTime.now());
         }
-        return healthMetricRepository.save(metric);
+        HealthMetric saved = healthMetricRepository.save(metric);
+        rollupService.onMetricsAdded(List.of(saved));
+        eventPublisher.publishEvent(new HealthMetricRecordedEvent(new HealthMetricRow(saved.getId(),
+                saved.getRecordedAt(), saved.getSleepHours(), saved.getMoodScore(), saved.getStressLevel(),
+                saved.getEnergyLevel(), saved.getNote())));
+        publishChange(Set.of(saved.getRecordedAt().toLocalDate()));
+        return saved;
     }
 
     /**
      * Update a health metric.
+     * @throws HealthMetricRollupService.PrunedDayException if the reading lies
+     *         on a day whose raw rows were dropped by retention
      */
     @Transactional
     public Optional<HealthMetric> updateMetric(Long id, HealthMetric updated) {
         return healthMetricRepository.findById(id)
                 .map(existing -> {
+                    LocalDate previousDay = existing.getRecordedAt().toLocalDate();
+                    rollupService.requireRawKept(previousDay);
                     if (updated.getRecordedAt() != null) {
                         existing.setRecordedAt(updated.getRecordedAt());
                     }
@@ -86,20 +126,31 @@ public class HealthMetricService {
                         existing.setEnergyLevel(updated.getEnergyLevel());
                     }
                     existing.setNote(updated.getNote());
-                    return healthMetricRepository.save(existing);
+                    HealthMetric saved = healthMetricRepository.save(existing);
+                    rollupService.onMetricUpdated(previousDay, saved);
+                    publishChange(new HashSet<>(List.of(previousDay, saved.getRecordedAt().toLocalDate())));
+                    return saved;
                 });
     }
 
     /**
      * Delete a health metric.
+     * @throws HealthMetricRollupService.PrunedDayException if the reading lies
+     *         on a day whose raw rows were dropped by retention
      */
     @Transactional
     public boolean deleteMetric(Long id) {
-        if (healthMetricRepository.existsById(id)) {
-            healthMetricRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return healthMetricRepository.findById(id)
+                .map(existing -> {
+                    LocalDate recordedOn = existing.getRecordedAt().toLocalDate();
+                    rollupService.requireRawKept(recordedOn);
+                    Set<LocalDate> day = Set.of(recordedOn);
+                    healthMetricRepository.delete(existing);
+                    rollupService.onDaysChanged(day);
+                    publishChange(day);
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
@@ -133,4 +184,9 @@ public class HealthMetricService {
         return healthMetricRepository.avgSleepHoursBetween(
                 from.atStartOfDay(), to.atTime(LocalTime.MAX));
     }
+
+    private void publishChange(Set<LocalDate> days) {
+        eventPublisher.publishEvent(new HealthMetricDaysChangedEvent(days));
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.HEALTH_METRIC));
+    }
 }
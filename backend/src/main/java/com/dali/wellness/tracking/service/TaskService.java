@@ -1,31 +1,76 @@
 package com.dali.wellness.tracking.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import com.dali.wellness.tracking.dto.CursorPage;
+import com.dali.wellness.tracking.dto.PageCursor;
 import com.dali.wellness.tracking.entity.Task;
+import com.dali.wellness.tracking.event.TrackingDataChangedEvent;
 import com.dali.wellness.tracking.repository.TaskRepository;
 
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
 
+    public CursorPage<Task> getTasksPage(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = CursorPage.clamp(limit);
+        List<Task> rows = taskRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after.id() : 0L, Limit.of(size + 1));
+        return CursorPage.of(rows, size, t -> PageCursor.ofId(t.getId()));
+    }
+
+    public Optional<Task> getTaskById(Long id) {
+        return taskRepository.findById(id);
+    }
+
     public List<Task> getPendingTasks() {
         return taskRepository.findByCompletedFalseOrderByDeadlineAsc();
     }
 
+    public List<Task> getPendingTasksWithDeadline() {
+        return taskRepository.findByCompletedFalseAndDeadlineIsNotNullOrderByDeadlineAsc();
+    }
+
+    public List<Task> getTasksByIds(List<Long> ids) {
+        return taskRepository.findAllById(ids);
+    }
+
+    public List<Task> getPendingTasks(LocalDateTime from, LocalDateTime to) {
+        return taskRepository.findByCompletedFalseAndDeadlineBetweenOrderByDeadlineAsc(from, to);
+    }
+
+    public List<Task> getOverdueTasks() {
+        return taskRepository.findByCompletedFalseAndDeadlineBeforeOrderByDeadlineAsc(LocalDateTime.now());
+    }
+
+    public List<Task> getCompletedTasks(LocalDateTime from, LocalDateTime to) {
+        // Tasks completed before completed_at was recorded keep it NULL (time unknown) and are not listed
+        return taskRepository.findByCompletedTrueAndCompletedAtBetweenOrderByCompletedAtDesc(from, to);
+    }
+
     public Task createTask(Task task) {
-        return taskRepository.save(task);
+        task.setCompletedAt(task.isCompleted() ? LocalDateTime.now() : null);
+        Task saved = taskRepository.save(task);
+        publishChange();
+        return saved;
     }
 
     public Task updateTask(Long id, Task taskDetails) {
@@ -33,12 +78,24 @@ public class TaskService {
             task.setTitle(taskDetails.getTitle());
             task.setDescription(taskDetails.getDescription());
             task.setDeadline(taskDetails.getDeadline());
+            if (taskDetails.isCompleted() && !task.isCompleted()) {
+                task.setCompletedAt(LocalDateTime.now());
+            } else if (!taskDetails.isCompleted()) {
+                task.setCompletedAt(null);
+            }
             task.setCompleted(taskDetails.isCompleted());
-            return taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            publishChange();
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Task not found"));
     }
 
     public void deleteTask(Long id) {
         taskRepository.deleteById(id);
+        publishChange();
+    }
+
+    private void publishChange() {
+        eventPublisher.publishEvent(new TrackingDataChangedEvent(TrackingDataChangedEvent.Kind.TASK));
     }
 }
@@ -0,0 +1,129 @@
+package com.dali.wellness.tracking.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dali.wellness.tracking.dto.DataFormat;
+import com.dali.wellness.tracking.dto.HabitLogRow;
+import com.dali.wellness.tracking.dto.HealthMetricRow;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tracking Export Service
+ * ────────────────────────
+ * Writes habit logs and health metrics as CSV or NDJSON, row by row.
+ *
+ * Rows come from repository Streams (DTO projections, JDBC fetch size
+ * EXPORT_FETCH_SIZE) and are written straight to the output, so heap use
+ * stays flat however many years are exported. The read-only transaction
+ * keeps the database cursor open until the last row is written.
+ *
+ * Health metric CSV uses the import column names, so exports can be
+ * re-imported through POST /api/health-metrics/import.
+ */
+@Service
+public class TrackingExportService {
+
+    private static final String HEALTH_METRIC_HEADER =
+            "id,recordedAt,sleepHours,moodScore,stressLevel,energyLevel,note";
+
+    private static final String HABIT_LOG_HEADER =
+            "id,habitId,logDate,value,note,createdAt";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HealthMetricRepository healthMetricRepository;
+    private final HabitLogRepository habitLogRepository;
+    private final ObjectMapper objectMapper;
+
+    public TrackingExportService(HealthMetricRepository healthMetricRepository,
+                                 HabitLogRepository habitLogRepository, ObjectMapper objectMapper) {
+        this.healthMetricRepository = healthMetricRepository;
+        this.habitLogRepository = habitLogRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export health metrics (all, or from/to inclusive), oldest first.
+     */
+    @Transactional(readOnly = true)
+    public void exportHealthMetrics(LocalDate from, LocalDate to, DataFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<HealthMetricRow> rows = from != null && to != null
+                ? healthMetricRepository.streamRowsBetween(from.atStartOfDay(), to.atTime(LocalTime.MAX))
+                : healthMetricRepository.streamAllRows()) {
+            write(rows, format, HEALTH_METRIC_HEADER, m -> new Object[] {
+                    m.id(), m.recordedAt(), m.sleepHours(), m.moodScore(),
+                    m.stressLevel(), m.energyLevel(), m.note()}, out);
+        }
+    }
+
+    /**
+     * Export the logs of one habit (all, or from/to inclusive), oldest first.
+     */
+    @Transactional(readOnly = true)
+    public void exportHabitLogs(Long habitId, LocalDate from, LocalDate to, DataFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<HabitLogRow> rows = from != null && to != null
+                ? habitLogRepository.streamRowsByHabitIdInRange(habitId, from, to)
+                : habitLogRepository.streamRowsByHabitId(habitId)) {
+            write(rows, format, HABIT_LOG_HEADER, l -> new Object[] {
+                    l.id(), l.habitId(), l.logDate(), l.value(), l.note(), l.createdAt()}, out);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, DataFormat format, String csvHeader,
+                           Function<T, Object[]> csvValues, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        if (format == DataFormat.CSV) {
+            buffered.write((csvHeader + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            if (format == DataFormat.CSV) {
+                buffered.write(csvLine(csvValues.apply(row)).getBytes(StandardCharsets.UTF_8));
+            } else {
+                buffered.write(objectMapper.writeValueAsBytes(row));
+                buffered.write('\n');
+            }
+        }
+        // Flush only: the servlet container owns (and closes) the response stream
+        buffered.flush();
+    }
+
+    private String csvLine(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            if (values[i] != null) {
+                sb.append(csvField(values[i].toString()));
+            }
+        }
+        return sb.append('\n').toString();
+    }
+
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        // Line breaks become spaces: one record per line, like the importer expects
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
+    }
+}
@@ -0,0 +1,18 @@
+package com.dali.wellness;
+
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Test Application Entry Point
+ * ────────────────────────────
+ * Runs the backend with the test classpath, which adds the offline fakes
+ * (stub controllers and their profiles) that do not ship in the jar:
+ *
+ *   mvn spring-boot:test-run -Dspring-boot.run.profiles=gemini-stub
+ */
+public class TestWellnessTrackerApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(WellnessTrackerApplication::main).run(args);
+    }
+}
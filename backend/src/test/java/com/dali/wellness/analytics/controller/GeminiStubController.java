@@ -0,0 +1,57 @@
+package com.dali.wellness.analytics.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Gemini Stub (offline development)
+ * ─────────────────────────────────
+ * Fake Gemini endpoints, active only with the "gemini-stub" profile.
+ * Test sources only (not shipped); run via TestWellnessTrackerApplication:
+ *
+ *   mvn spring-boot:test-run -Dspring-boot.run.profiles=gemini-stub
+ *
+ * application-gemini-stub.properties points gemini.api.url here, so the
+ * unary, async and streaming AI insight endpoints work without an API key
+ * or network. The streaming variant emits one SSE chunk every 200 ms.
+ */
+@Profile("gemini-stub")
+@RestController
+@RequestMapping("/stub/gemini/v1beta/models")
+public class GeminiStubController {
+
+    private static final List<String> CHUNKS = List.of(
+            "1. Your sleep is steady this week - keep the same bedtime. ",
+            "2. Mood tracks your exercise days; try adding one more session. ",
+            "3. Stress peaks mid-week; a short meditation could help.");
+
+    private static final Duration CHUNK_DELAY = Duration.ofMillis(200);
+
+    @PostMapping("/{model}:generateContent")
+    public Map<String, Object> generateContent(@PathVariable String model) {
+        return response(String.join("", CHUNKS));
+    }
+
+    @PostMapping(path = "/{model}:streamGenerateContent", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> streamGenerateContent(@PathVariable String model) {
+        return Flux.fromIterable(CHUNKS)
+                .delayElements(CHUNK_DELAY)
+                .map(chunk -> ServerSentEvent.builder(response(chunk)).build());
+    }
+
+    private Map<String, Object> response(String text) {
+        return Map.of("candidates", List.of(
+                Map.of("content", Map.of("parts", List.of(Map.of("text", text))))));
+    }
+}
@@ -0,0 +1,94 @@
+package com.dali.wellness.analytics.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+/**
+ * AiInsightService streaming: identical prompts share one Gemini stream
+ * while it runs, and its full text is cached when it completes.
+ */
+class AiInsightServiceTest {
+
+    private static final String PROMPT = "How was my week?";
+
+    private final GeminiService geminiService = mock(GeminiService.class);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private Sinks.Many<String> gemini;
+    private AiInsightService service;
+
+    @BeforeEach
+    void setUp() {
+        gemini = Sinks.many().multicast().onBackpressureBuffer();
+        when(geminiService.stream(PROMPT)).thenAnswer(inv -> gemini.asFlux()
+                .doOnSubscribe(s -> upstreamCalls.incrementAndGet()));
+        service = new AiInsightService(geminiService, new ConcurrentMapCacheManager(), Duration.ofMinutes(30), 100);
+    }
+
+    @Test
+    void concurrentStreamsShareOneGeminiCall() {
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        service.streamInsight(PROMPT).subscribe(first::add);
+        gemini.tryEmitNext("Slept ");
+        // Joins mid-stream: gets the chunk already sent, then the rest
+        service.streamInsight(PROMPT).subscribe(second::add);
+        gemini.tryEmitNext("well.");
+        gemini.tryEmitComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first).containsExactly("Slept ", "well.");
+        assertThat(second).containsExactly("Slept ", "well.");
+
+        // Finished: served from the cache as one chunk
+        List<String> later = new CopyOnWriteArrayList<>();
+        service.streamInsight(PROMPT).subscribe(later::add);
+        assertThat(later).containsExactly("Slept well.");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void oneClientLeavingDoesNotCancelTheSharedStream() {
+        List<String> staying = new CopyOnWriteArrayList<>();
+        Disposable leaving = service.streamInsight(PROMPT).subscribe();
+        service.streamInsight(PROMPT).subscribe(staying::add);
+
+        leaving.dispose();
+        gemini.tryEmitNext("Done.");
+        gemini.tryEmitComplete();
+
+        assertThat(staying).containsExactly("Done.");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void failedStreamIsNotReused() {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        service.streamInsight(PROMPT).subscribe(chunk -> { }, errors::add);
+        gemini.tryEmitError(new IllegalStateException("boom"));
+        assertThat(errors).hasSize(1);
+
+        gemini = Sinks.many().multicast().onBackpressureBuffer();
+        List<String> retry = new CopyOnWriteArrayList<>();
+        service.streamInsight(PROMPT).subscribe(retry::add);
+        gemini.tryEmitNext("Retried.");
+        gemini.tryEmitComplete();
+
+        assertThat(retry).containsExactly("Retried.");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+}
@@ -0,0 +1,346 @@
+package com.dali.wellness.analytics.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dali.wellness.analytics.entity.CorrelationMetricDay;
+import com.dali.wellness.analytics.entity.HabitMetricCorrelation;
+import com.dali.wellness.analytics.repository.CorrelationMetricDayRepository;
+import com.dali.wellness.analytics.repository.HabitMetricCorrelationRepository;
+import com.dali.wellness.tracking.dto.DailyHealthAverages;
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.event.HabitDaysChangedEvent;
+import com.dali.wellness.tracking.event.HealthMetricDaysChangedEvent;
+import com.dali.wellness.tracking.repository.HabitDailyRollupRepository;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupRepository;
+
+/**
+ * CorrelationService: the statistics kept up to date write by write must
+ * equal what rebuild() computes from scratch over the same data.
+ *
+ * The repositories are backed by in-memory maps standing in for
+ * habit_daily_rollup, the DAY tier of health_metric_rollup and the
+ * correlation tables.
+ */
+class CorrelationServiceTest {
+
+    private static final Long RUN = 1L;
+    private static final Long READ = 2L;
+    private static final LocalDate D = LocalDate.of(2025, 3, 1);
+
+    // Tracking side (written by the test, read by the service)
+    private final Map<Long, TreeSet<LocalDate>> logDays = new TreeMap<>();
+    private final TreeMap<LocalDate, DailyHealthAverages> dayTier = new TreeMap<>();
+
+    // Correlation tables (written by the service)
+    private final Map<HabitMetricCorrelation.Key, HabitMetricCorrelation> correlations = new LinkedHashMap<>();
+    private final TreeMap<LocalDate, CorrelationMetricDay> metricDays = new TreeMap<>();
+
+    private CorrelationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CorrelationService(correlationRepository(), metricDayRepository(),
+                metricRollupRepository(), habitLogRepository(), habitRollupRepository());
+        // Two weeks of readings, starting before any habit is logged
+        for (int i = -3; i < 14; i++) {
+            reading(D.plusDays(i), 6 + (i * 7 % 5) * 0.5, 1.0 + i % 5, i % 3 == 0 ? null : 5.0 - i % 4, 2.0 + i % 2);
+        }
+    }
+
+    @Test
+    void logsAddedAndRemovedMatchRebuild() {
+        log(RUN, D.plusDays(2));
+        log(RUN, D.plusDays(5));
+        log(RUN, D.plusDays(6));
+        log(RUN, D.plusDays(9));
+        unlog(RUN, D.plusDays(5));
+        log(RUN, D.plusDays(11));
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void backdatedFirstLogMatchesRebuild() {
+        log(RUN, D.plusDays(6));
+        log(RUN, D.plusDays(8));
+        log(RUN, D.plusDays(1));
+        assertThat(windowStart(RUN)).isEqualTo(D.plusDays(1));
+        assertMatchesRebuild();
+
+        log(RUN, D.minusDays(3));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void removingTheEarliestLogsMovesTheWindowLikeRebuild() {
+        log(RUN, D.plusDays(1));
+        log(RUN, D.plusDays(4));
+        log(RUN, D.plusDays(9));
+
+        unlog(RUN, D.plusDays(1));
+        assertThat(windowStart(RUN)).isEqualTo(D.plusDays(4));
+        assertMatchesRebuild();
+
+        unlog(RUN, D.plusDays(4));
+        assertThat(windowStart(RUN)).isEqualTo(D.plusDays(9));
+        assertMatchesRebuild();
+
+        // Last log gone: rebuild() keeps no rows for the habit
+        unlog(RUN, D.plusDays(9));
+        assertThat(correlations).isEmpty();
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void metricEditsMatchRebuild() {
+        log(RUN, D.plusDays(1));
+        log(RUN, D.plusDays(3));
+        log(RUN, D.plusDays(4));
+        log(READ, D.plusDays(7));
+        log(READ, D.plusDays(10));
+
+        // Edited day, day whose readings were all deleted, days outside the logged range
+        reading(D.plusDays(3), 4.5, 2.0, 4.0, 1.0);
+        clearReadings(D.plusDays(5));
+        reading(D.plusDays(8), null, 4.0, null, 3.0);
+        reading(D.plusDays(20), 7.0, 4.0, 2.0, 4.0);
+        reading(D.minusDays(10), 8.0, 5.0, 1.0, 5.0);
+
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void mixedWritesMatchRebuild() {
+        log(READ, D.plusDays(12));
+        log(RUN, D.plusDays(6));
+        reading(D.plusDays(6), 5.0, 2.0, 5.0, 1.0);
+        log(READ, D.plusDays(2));
+        unlog(RUN, D.plusDays(6));
+        log(RUN, D.plusDays(8));
+        clearReadings(D.plusDays(9));
+        log(RUN, D.plusDays(3));
+        unlog(READ, D.plusDays(2));
+        reading(D.plusDays(12), 9.0, 5.0, 1.0, 5.0);
+
+        assertMatchesRebuild();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Tracking writes, published the way the rollup services do
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void log(Long habitId, LocalDate day) {
+        if (logDays.computeIfAbsent(habitId, k -> new TreeSet<>()).add(day)) {
+            service.onHabitDaysChanged(HabitDaysChangedEvent.started(List.of(new HabitLogDay(habitId, day))));
+        }
+    }
+
+    private void unlog(Long habitId, LocalDate day) {
+        TreeSet<LocalDate> days = logDays.get(habitId);
+        if (days.remove(day)) {
+            if (days.isEmpty()) {
+                logDays.remove(habitId);
+            }
+            service.onHabitDaysChanged(HabitDaysChangedEvent.ended(List.of(new HabitLogDay(habitId, day))));
+        }
+    }
+
+    private void reading(LocalDate day, Double sleep, Double mood, Double stress, Double energy) {
+        dayTier.put(day, new DailyHealthAverages(day, sleep, mood, stress, energy));
+        service.onHealthMetricDaysChanged(new HealthMetricDaysChangedEvent(Set.of(day)));
+    }
+
+    private void clearReadings(LocalDate day) {
+        dayTier.remove(day);
+        service.onHealthMetricDaysChanged(new HealthMetricDaysChangedEvent(Set.of(day)));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Comparison with a full rebuild
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private record Stats(LocalDate windowStart, long n, long daysDone, Double coefficient,
+                         Double meanWhenDone, Double meanWhenSkipped) {
+    }
+
+    private void assertMatchesRebuild() {
+        Map<HabitMetricCorrelation.Key, Stats> incremental = snapshot();
+        Map<LocalDate, CorrelationMetricDay> countedDays = new TreeMap<>(metricDays);
+
+        service.rebuild();
+        Map<HabitMetricCorrelation.Key, Stats> rebuilt = snapshot();
+
+        assertThat(countedDays.keySet()).isEqualTo(metricDays.keySet());
+        assertThat(incremental.keySet()).isEqualTo(rebuilt.keySet());
+        rebuilt.forEach((key, expected) -> {
+            Stats actual = incremental.get(key);
+            assertThat(actual.windowStart()).isEqualTo(expected.windowStart());
+            assertThat(actual.n()).isEqualTo(expected.n());
+            assertThat(actual.daysDone()).isEqualTo(expected.daysDone());
+            assertClose(actual.coefficient(), expected.coefficient());
+            assertClose(actual.meanWhenDone(), expected.meanWhenDone());
+            assertClose(actual.meanWhenSkipped(), expected.meanWhenSkipped());
+        });
+    }
+
+    private Map<HabitMetricCorrelation.Key, Stats> snapshot() {
+        Map<HabitMetricCorrelation.Key, Stats> stats = new LinkedHashMap<>();
+        correlations.forEach((key, c) -> stats.put(key, new Stats(c.getWindowStart(), c.getN(), c.daysDone(),
+                c.coefficient(), c.meanWhenDone(), c.meanWhenSkipped())));
+        return stats;
+    }
+
+    private void assertClose(Double actual, Double expected) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+        } else {
+            assertThat(actual).isCloseTo(expected, within(1e-9));
+        }
+    }
+
+    private LocalDate windowStart(Long habitId) {
+        return correlations.values().stream()
+                .filter(c -> c.getHabitId().equals(habitId))
+                .map(HabitMetricCorrelation::getWindowStart)
+                .findFirst().orElse(null);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // In-memory repositories
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static HabitMetricCorrelation.Key key(HabitMetricCorrelation c) {
+        return new HabitMetricCorrelation.Key(c.getHabitId(), c.getMetric(), c.getLagDays());
+    }
+
+    private List<HabitMetricCorrelation> sortedCorrelations() {
+        List<HabitMetricCorrelation> rows = new ArrayList<>(correlations.values());
+        rows.sort(Comparator.comparing(HabitMetricCorrelation::getHabitId)
+                .thenComparing(HabitMetricCorrelation::getMetric)
+                .thenComparingInt(HabitMetricCorrelation::getLagDays));
+        return rows;
+    }
+
+    private HabitMetricCorrelationRepository correlationRepository() {
+        HabitMetricCorrelationRepository repository = mock(HabitMetricCorrelationRepository.class);
+        when(repository.findAllForUpdate()).thenAnswer(inv -> sortedCorrelations());
+        when(repository.findByHabitIdForUpdate(anyLong())).thenAnswer(inv -> sortedCorrelations().stream()
+                .filter(c -> c.getHabitId().equals(inv.getArgument(0))).toList());
+        when(repository.saveAll(anyIterable())).thenAnswer(inv -> {
+            Iterable<HabitMetricCorrelation> rows = inv.getArgument(0);
+            rows.forEach(c -> correlations.put(key(c), c));
+            return rows;
+        });
+        doAnswer(inv -> {
+            Iterable<HabitMetricCorrelation> rows = inv.getArgument(0);
+            rows.forEach(c -> correlations.remove(key(c)));
+            return null;
+        }).when(repository).deleteAll(anyIterable());
+        when(repository.deleteAllRows()).thenAnswer(inv -> {
+            int size = correlations.size();
+            correlations.clear();
+            return size;
+        });
+        when(repository.count()).thenAnswer(inv -> (long) correlations.size());
+        return repository;
+    }
+
+    private CorrelationMetricDayRepository metricDayRepository() {
+        CorrelationMetricDayRepository repository = mock(CorrelationMetricDayRepository.class);
+        when(repository.findBetween(any(), any())).thenAnswer(inv -> new ArrayList<>(
+                metricDays.subMap(inv.getArgument(0), true, inv.getArgument(1), true).values()));
+        when(repository.findByDayGreaterThanEqual(any())).thenAnswer(inv -> new ArrayList<>(
+                metricDays.tailMap(inv.getArgument(0), true).values()));
+        when(repository.findAllById(anyIterable())).thenAnswer(inv -> {
+            Iterable<LocalDate> days = inv.getArgument(0);
+            List<CorrelationMetricDay> found = new ArrayList<>();
+            days.forEach(day -> {
+                if (metricDays.containsKey(day)) {
+                    found.add(metricDays.get(day));
+                }
+            });
+            return found;
+        });
+        when(repository.save(any(CorrelationMetricDay.class))).thenAnswer(inv -> {
+            CorrelationMetricDay day = inv.getArgument(0);
+            metricDays.put(day.getDay(), day);
+            return day;
+        });
+        doAnswer(inv -> {
+            CorrelationMetricDay day = inv.getArgument(0);
+            metricDays.remove(day.getDay());
+            return null;
+        }).when(repository).delete(any(CorrelationMetricDay.class));
+        when(repository.saveAll(anyIterable())).thenAnswer(inv -> {
+            Iterable<CorrelationMetricDay> days = inv.getArgument(0);
+            days.forEach(day -> metricDays.put(day.getDay(), day));
+            return days;
+        });
+        when(repository.deleteAllRows()).thenAnswer(inv -> {
+            int size = metricDays.size();
+            metricDays.clear();
+            return size;
+        });
+        when(repository.count()).thenAnswer(inv -> (long) metricDays.size());
+        return repository;
+    }
+
+    private HealthMetricRollupRepository metricRollupRepository() {
+        HealthMetricRollupRepository repository = mock(HealthMetricRollupRepository.class);
+        // to is exclusive, like the DAY bucket range query
+        when(repository.findDailyAverages(any(), any())).thenAnswer(inv -> new ArrayList<>(
+                dayTier.subMap(inv.getArgument(0), true, inv.getArgument(1), false).values()));
+        when(repository.findAllDailyAverages()).thenAnswer(inv -> new ArrayList<>(dayTier.values()));
+        return repository;
+    }
+
+    private HabitLogRepository habitLogRepository() {
+        HabitLogRepository repository = mock(HabitLogRepository.class);
+        when(repository.findDistinctLogDaysInRange(any(), any())).thenAnswer(inv -> {
+            LocalDate from = inv.getArgument(0);
+            LocalDate to = inv.getArgument(1);
+            return allLogDays().stream()
+                    .filter(d -> !d.logDate().isBefore(from) && !d.logDate().isAfter(to))
+                    .toList();
+        });
+        return repository;
+    }
+
+    private HabitDailyRollupRepository habitRollupRepository() {
+        HabitDailyRollupRepository repository = mock(HabitDailyRollupRepository.class);
+        when(repository.findAllDays()).thenAnswer(inv -> allLogDays());
+        when(repository.findFirstDay(anyLong())).thenAnswer(inv -> {
+            TreeSet<LocalDate> days = logDays.get(inv.<Long>getArgument(0));
+            return days != null && !days.isEmpty() ? days.first() : null;
+        });
+        when(repository.count()).thenAnswer(inv -> (long) allLogDays().size());
+        return repository;
+    }
+
+    private List<HabitLogDay> allLogDays() {
+        List<HabitLogDay> days = new ArrayList<>();
+        logDays.forEach((habitId, dates) -> dates.forEach(d -> days.add(new HabitLogDay(habitId, d))));
+        return days;
+    }
+}
@@ -0,0 +1,161 @@
+package com.dali.wellness.integration.google;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.dali.wellness.integration.google.GoogleCalendarService.SyncTokenExpiredException;
+import com.dali.wellness.integration.google.dto.CalendarEventChange;
+import com.dali.wellness.integration.google.dto.CalendarPullResult;
+import com.dali.wellness.integration.google.dto.DailyCalendarLoad;
+import com.dali.wellness.integration.google.entity.CalendarEvent;
+import com.dali.wellness.integration.google.entity.CalendarSyncState;
+import com.dali.wellness.integration.google.repository.CalendarEventRepository;
+import com.dali.wellness.integration.google.repository.CalendarSyncStateRepository;
+
+/**
+ * CalendarMirrorService pull flow: full sync, incremental sync with the
+ * stored token, and the full resync after Google answers 410.
+ */
+class CalendarMirrorServiceTest {
+
+    private static final String CALENDAR_ID = GoogleCalendarService.CALENDAR_ID;
+
+    private final GoogleCalendarService googleCalendarService = mock(GoogleCalendarService.class);
+    private final CalendarEventRepository eventRepository = mock(CalendarEventRepository.class);
+    private final CalendarSyncStateRepository stateRepository = mock(CalendarSyncStateRepository.class);
+
+    private final CalendarSyncState state = new CalendarSyncState(CALENDAR_ID);
+
+    private CalendarMirrorService service;
+
+    @BeforeEach
+    void setUp() {
+        when(stateRepository.findById(CALENDAR_ID)).thenReturn(Optional.of(state));
+        service = new CalendarMirrorService(googleCalendarService, eventRepository, stateRepository,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "maxLoadDays", 31);
+    }
+
+    @Test
+    void firstPullIsFullAndStoresTheSyncToken() throws IOException {
+        when(googleCalendarService.listEventChanges(isNull(), any()))
+                .thenAnswer(inv -> deliver(inv, "token-1", change("a"), cancelled("gone")));
+
+        CalendarPullResult result = service.pull().orElseThrow();
+
+        assertThat(result.fullSync()).isTrue();
+        assertThat(result.error()).isNull();
+        assertThat(result.upserted()).isEqualTo(1);
+        assertThat(state.getSyncToken()).isEqualTo("token-1");
+        assertThat(state.getLastFullSyncAt()).isEqualTo(result.pulledAt());
+        verify(eventRepository).deleteByEventIds(CALENDAR_ID, List.of("gone"));
+        // Rows the full listing did not touch are swept
+        verify(eventRepository).deleteNotSyncedSince(CALENDAR_ID, result.pulledAt());
+    }
+
+    @Test
+    void laterPullsAreIncrementalFromTheStoredToken() throws IOException {
+        state.setSyncToken("token-1");
+        when(googleCalendarService.listEventChanges(eq("token-1"), any()))
+                .thenAnswer(inv -> deliver(inv, "token-2", change("a")));
+
+        CalendarPullResult result = service.pull().orElseThrow();
+
+        assertThat(result.fullSync()).isFalse();
+        assertThat(state.getSyncToken()).isEqualTo("token-2");
+        assertThat(state.getLastFullSyncAt()).isNull();
+        verify(googleCalendarService, never()).listEventChanges(isNull(), any());
+        verify(eventRepository, never()).deleteNotSyncedSince(anyString(), any());
+    }
+
+    @Test
+    void expiredTokenFallsBackToAFullSync() throws IOException {
+        state.setSyncToken("stale");
+        when(googleCalendarService.listEventChanges(eq("stale"), any()))
+                .thenThrow(new SyncTokenExpiredException());
+        when(googleCalendarService.listEventChanges(isNull(), any()))
+                .thenAnswer(inv -> deliver(inv, "fresh", change("a")));
+
+        CalendarPullResult result = service.pull().orElseThrow();
+
+        assertThat(result.fullSync()).isTrue();
+        assertThat(result.error()).isNull();
+        assertThat(state.getSyncToken()).isEqualTo("fresh");
+        verify(eventRepository).deleteNotSyncedSince(CALENDAR_ID, result.pulledAt());
+    }
+
+    @Test
+    void failedPullKeepsTheOldTokenAndRecordsTheError() throws IOException {
+        state.setSyncToken("token-1");
+        when(googleCalendarService.listEventChanges(eq("token-1"), any()))
+                .thenThrow(new IOException("connection reset"));
+
+        CalendarPullResult result = service.pull().orElseThrow();
+
+        assertThat(result.error()).isEqualTo("connection reset");
+        assertThat(state.getSyncToken()).isEqualTo("token-1");
+        assertThat(state.getLastError()).isEqualTo("connection reset");
+    }
+
+    @Test
+    void dailyLoadSplitsEventsAcrossDays() {
+        CalendarEvent lateMeeting = new CalendarEvent(CALENDAR_ID, "late");
+        lateMeeting.setStartTime(LocalDateTime.of(2025, 12, 4, 23, 0));
+        lateMeeting.setEndTime(LocalDateTime.of(2025, 12, 5, 1, 0));
+        when(eventRepository.findByCalendarIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(
+                eq(CALENDAR_ID), any(), any())).thenReturn(List.of(lateMeeting));
+
+        List<DailyCalendarLoad> load = service.getDailyLoad(
+                LocalDate.of(2025, 12, 4), LocalDate.of(2025, 12, 6)).orElseThrow();
+
+        assertThat(load).containsExactly(
+                new DailyCalendarLoad(LocalDate.of(2025, 12, 4), 1, 60),
+                new DailyCalendarLoad(LocalDate.of(2025, 12, 5), 1, 60),
+                new DailyCalendarLoad(LocalDate.of(2025, 12, 6), 0, 0));
+    }
+
+    @Test
+    void dailyLoadRejectsReversedOrTooLongRanges() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        assertThat(service.getDailyLoad(from, from.minusDays(1))).isEmpty();
+        assertThat(service.getDailyLoad(from, from.plusDays(31))).isEmpty();
+        assertThat(service.getDailyLoad(from, from.plusDays(30))).hasValueSatisfying(
+                load -> assertThat(load).hasSize(31));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String deliver(InvocationOnMock invocation, String nextToken, CalendarEventChange... page) {
+        invocation.getArgument(1, Consumer.class).accept(List.of(page));
+        return nextToken;
+    }
+
+    private CalendarEventChange change(String eventId) {
+        LocalDateTime start = LocalDateTime.of(2025, 12, 4, 9, 0);
+        return new CalendarEventChange(eventId, false, "Meeting", start, start.plusHours(1), false, start);
+    }
+
+    private CalendarEventChange cancelled(String eventId) {
+        return new CalendarEventChange(eventId, true, null, null, null, false, null);
+    }
+}
@@ -0,0 +1,249 @@
+package com.dali.wellness.integration.google;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calendar Stub (offline development)
+ * ───────────────────────────────────
+ * In-memory fake of the Google Calendar events API, active only with the
+ * "calendar-stub" profile. Test sources only (not shipped); run via
+ * TestWellnessTrackerApplication:
+ *
+ *   mvn spring-boot:test-run -Dspring-boot.run.profiles=calendar-stub
+ *
+ * application-calendar-stub.properties points calendar.api.root-url here
+ * and turns OAuth off, so push (single and batch inserts) and the
+ * incremental mirror pull work without credentials or network.
+ *
+ * Supported: events list (syncToken, pageToken, maxResults), insert,
+ * update, delete, and the multipart batch endpoint. Every change bumps a
+ * version counter; a syncToken is the version it was issued at.
+ * DELETE /stub/calendar/sync-tokens invalidates all issued tokens, so the
+ * next incremental list answers 410 like Google does.
+ */
+@Profile("calendar-stub")
+@RestController
+@RequestMapping("/stub/calendar")
+public class CalendarStubController {
+
+    private static final String EVENTS_PATH = "/calendar/v3/calendars/{calendarId}/events";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Events by id, in change order (an event moves to the end when it changes).
+     */
+    private final Map<String, Map<String, Object>> events = new LinkedHashMap<>();
+    private final Map<String, Long> versions = new LinkedHashMap<>();
+    private long version;
+    private long oldestValidToken;
+
+    public CalendarStubController(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(EVENTS_PATH)
+    public synchronized ResponseEntity<Map<String, Object>> listEvents(
+            @PathVariable String calendarId,
+            @RequestParam(required = false) String syncToken,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "250") int maxResults) {
+        long since = -1;
+        if (syncToken != null) {
+            since = parseToken(syncToken);
+            if (since < oldestValidToken || since > version) {
+                return ResponseEntity.status(HttpStatus.GONE).body(error(410, "fullSyncRequired",
+                        "Sync token is no longer valid, a full sync is required."));
+            }
+        }
+
+        List<Map<String, Object>> matching = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : events.entrySet()) {
+            boolean cancelled = "cancelled".equals(e.getValue().get("status"));
+            // Full listing: live events only; incremental: everything changed since the token
+            if (since < 0 ? !cancelled : versions.get(e.getKey()) > since) {
+                matching.add(e.getValue());
+            }
+        }
+
+        int offset = pageToken != null ? Integer.parseInt(pageToken) : 0;
+        int end = Math.min(offset + maxResults, matching.size());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("kind", "calendar#events");
+        body.put("items", matching.subList(offset, end));
+        if (end < matching.size()) {
+            body.put("nextPageToken", String.valueOf(end));
+        } else {
+            body.put("nextSyncToken", "v" + version);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    @PostMapping(EVENTS_PATH)
+    public ResponseEntity<Map<String, Object>> insertEvent(
+            @PathVariable String calendarId,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String encoding,
+            @RequestBody byte[] body) throws IOException {
+        return insertEvent(readJson(body, encoding));
+    }
+
+    private synchronized ResponseEntity<Map<String, Object>> insertEvent(Map<String, Object> event) {
+        String id = event.get("id") != null ? event.get("id").toString() : UUID.randomUUID().toString().replace("-", "");
+        Map<String, Object> existing = events.get(id);
+        if (existing != null && !"cancelled".equals(existing.get("status"))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error(409, "duplicate",
+                    "The requested identifier already exists."));
+        }
+        return ResponseEntity.ok(store(id, event));
+    }
+
+    @PutMapping(EVENTS_PATH + "/{eventId}")
+    public ResponseEntity<Map<String, Object>> updateEvent(
+            @PathVariable String calendarId, @PathVariable String eventId,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String encoding,
+            @RequestBody byte[] body) throws IOException {
+        Map<String, Object> event = readJson(body, encoding);
+        synchronized (this) {
+            if (!events.containsKey(eventId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error(404, "notFound", "Not Found"));
+            }
+            return ResponseEntity.ok(store(eventId, event));
+        }
+    }
+
+    @DeleteMapping(EVENTS_PATH + "/{eventId}")
+    public synchronized ResponseEntity<Void> deleteEvent(@PathVariable String calendarId,
+                                                         @PathVariable String eventId) {
+        Map<String, Object> existing = events.get(eventId);
+        if (existing == null || "cancelled".equals(existing.get("status"))) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        store(eventId, Map.of("status", "cancelled"));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Make every issued syncToken invalid (next incremental list → 410).
+     */
+    @DeleteMapping("/sync-tokens")
+    public synchronized ResponseEntity<Void> expireSyncTokens() {
+        oldestValidToken = version + 1;
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Batch endpoint: multipart/mixed of inserts, answered part by part in order.
+     * (Needs spring.servlet.multipart.resolve-lazily, or the servlet multipart
+     * parser consumes the body first.)
+     */
+    @PostMapping("/batch/calendar/v3")
+    public ResponseEntity<String> batch(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String encoding,
+            @RequestBody byte[] rawBody) throws IOException {
+        String body = new String(decode(rawBody, encoding), StandardCharsets.UTF_8);
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+        String responseBoundary = "batch_" + UUID.randomUUID();
+        StringBuilder response = new StringBuilder();
+
+        for (String part : body.replace("\r\n", "\n").split("--" + boundary)) {
+            int requestStart = part.indexOf("\n\n");
+            if (requestStart < 0) {
+                continue; // preamble or closing "--"
+            }
+            String request = part.substring(requestStart + 2);
+            int bodyStart = request.indexOf("\n\n");
+            String json = bodyStart >= 0 ? request.substring(bodyStart + 2).trim() : "";
+
+            ResponseEntity<Map<String, Object>> result = request.startsWith("POST ") && !json.isEmpty()
+                    ? insertEvent(objectMapper.readValue(json, MAP_TYPE))
+                    : ResponseEntity.badRequest().body(error(400, "badRequest", "Only inserts are supported"));
+
+            HttpStatus status = HttpStatus.valueOf(result.getStatusCode().value());
+            response.append("--").append(responseBoundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n\r\n")
+                    .append("HTTP/1.1 ").append(status.value()).append(' ').append(status.getReasonPhrase()).append("\r\n")
+                    .append("Content-Type: application/json; charset=UTF-8\r\n\r\n")
+                    .append(objectMapper.writeValueAsString(result.getBody())).append("\r\n");
+        }
+        response.append("--").append(responseBoundary).append("--\r\n");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "multipart/mixed; boundary=" + responseBoundary)
+                .body(response.toString());
+    }
+
+    private Map<String, Object> store(String id, Map<String, Object> fields) {
+        Map<String, Object> event = new LinkedHashMap<>(fields);
+        event.put("kind", "calendar#event");
+        event.put("id", id);
+        event.putIfAbsent("status", "confirmed");
+        event.put("updated", OffsetDateTime.now(ZoneOffset.UTC).toString());
+        event.put("htmlLink", "http://localhost/stub/calendar/event?eid=" + id);
+        events.remove(id);
+        events.put(id, event);
+        versions.put(id, ++version);
+        return event;
+    }
+
+    /**
+     * The Google client gzips request bodies.
+     */
+    private byte[] decode(byte[] body, String encoding) throws IOException {
+        if (!"gzip".equalsIgnoreCase(encoding)) {
+            return body;
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private Map<String, Object> readJson(byte[] body, String encoding) throws IOException {
+        return objectMapper.readValue(decode(body, encoding), MAP_TYPE);
+    }
+
+    private long parseToken(String token) {
+        try {
+            return token.startsWith("v") ? Long.parseLong(token.substring(1)) : -2;
+        } catch (NumberFormatException e) {
+            return -2;
+        }
+    }
+
+    private Map<String, Object> error(int code, String reason, String message) {
+        return Map.of("error", Map.of(
+                "code", code,
+                "message", message,
+                "errors", List.of(Map.of("domain", "calendar", "reason", reason, "message", message))));
+    }
+}
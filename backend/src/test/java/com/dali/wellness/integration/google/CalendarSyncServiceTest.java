@@ -0,0 +1,151 @@
+package com.dali.wellness.integration.google;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dali.wellness.integration.google.dto.CalendarEventRequest;
+import com.dali.wellness.integration.google.dto.CalendarEventResult;
+import com.dali.wellness.integration.google.entity.CalendarSyncItem;
+import com.dali.wellness.integration.google.entity.CalendarSyncItem.Status;
+import com.dali.wellness.integration.google.repository.CalendarSyncItemRepository;
+import com.dali.wellness.tracking.entity.Task;
+import com.dali.wellness.tracking.service.TaskService;
+
+/**
+ * CalendarSyncService batch flow: due items go out in one insertEvents
+ * call and each result moves its item to SYNCED, a retry or FAILED.
+ */
+class CalendarSyncServiceTest {
+
+    private final CalendarSyncItemRepository queueRepository = mock(CalendarSyncItemRepository.class);
+    private final TaskService taskService = mock(TaskService.class);
+    private final GoogleCalendarService googleCalendarService = mock(GoogleCalendarService.class);
+
+    private CalendarSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CalendarSyncService(queueRepository, taskService, googleCalendarService);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(service, "maxBackoff", Duration.ofHours(1));
+    }
+
+    @Test
+    void resultsAreAppliedPerItem() throws IOException {
+        CalendarSyncItem synced = new CalendarSyncItem(1L);
+        CalendarSyncItem rateLimited = new CalendarSyncItem(2L);
+        CalendarSyncItem rejected = new CalendarSyncItem(3L);
+        CalendarSyncItem noDeadline = new CalendarSyncItem(4L);
+        due(synced, rateLimited, rejected, noDeadline);
+        when(taskService.getTasksByIds(anyList())).thenReturn(List.of(
+                task(1L, LocalDateTime.of(2025, 12, 4, 10, 0)),
+                task(2L, LocalDateTime.of(2025, 12, 4, 11, 0)),
+                task(3L, LocalDateTime.of(2025, 12, 4, 12, 0)),
+                task(4L, null)));
+        when(googleCalendarService.insertEvents(anyList())).thenReturn(Map.of(
+                "task1", CalendarEventResult.created("task1", "https://calendar/task1"),
+                "task2", CalendarEventResult.failed("task2", true, "429 Too Many Requests"),
+                "task3", CalendarEventResult.failed("task3", false, "400 Invalid start time")));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.processDueItems();
+
+        // One batch, without the task that has no deadline
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CalendarEventRequest>> sent = ArgumentCaptor.forClass(List.class);
+        verify(googleCalendarService).insertEvents(sent.capture());
+        assertThat(sent.getValue()).extracting(CalendarEventRequest::eventId)
+                .containsExactly("task1", "task2", "task3");
+        assertThat(sent.getValue().get(0).end()).isEqualTo(LocalDateTime.of(2025, 12, 4, 10, 0));
+        assertThat(sent.getValue().get(0).start()).isEqualTo(LocalDateTime.of(2025, 12, 4, 9, 0));
+
+        assertThat(synced.getStatus()).isEqualTo(Status.SYNCED);
+        assertThat(synced.getHtmlLink()).isEqualTo("https://calendar/task1");
+
+        assertThat(rateLimited.getStatus()).isEqualTo(Status.PENDING);
+        assertThat(rateLimited.getAttempts()).isEqualTo(1);
+        assertThat(rateLimited.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+
+        assertThat(rejected.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(rejected.getLastError()).isEqualTo("400 Invalid start time");
+
+        assertThat(noDeadline.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(noDeadline.getLastError()).isEqualTo("Task has no deadline");
+
+        verify(queueRepository).saveAll(List.of(synced, rateLimited, rejected, noDeadline));
+    }
+
+    @Test
+    void failedBatchRetriesEveryItemWithBackoff() throws IOException {
+        CalendarSyncItem first = new CalendarSyncItem(1L);
+        CalendarSyncItem second = new CalendarSyncItem(2L);
+        second.setAttempts(1);
+        due(first, second);
+        when(taskService.getTasksByIds(anyList())).thenReturn(List.of(
+                task(1L, LocalDateTime.of(2025, 12, 4, 10, 0)),
+                task(2L, LocalDateTime.of(2025, 12, 4, 11, 0))));
+        when(googleCalendarService.insertEvents(anyList())).thenThrow(new IOException("connection reset"));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.processDueItems();
+
+        assertThat(first.getStatus()).isEqualTo(Status.PENDING);
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        // Backoff doubles per attempt
+        assertThat(second.getStatus()).isEqualTo(Status.PENDING);
+        assertThat(second.getAttempts()).isEqualTo(2);
+        assertThat(second.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(60));
+    }
+
+    @Test
+    void retryableFailureGivesUpAfterMaxAttempts() throws IOException {
+        CalendarSyncItem item = new CalendarSyncItem(1L);
+        item.setAttempts(2);
+        due(item);
+        when(taskService.getTasksByIds(anyList())).thenReturn(List.of(
+                task(1L, LocalDateTime.of(2025, 12, 4, 10, 0))));
+        when(googleCalendarService.insertEvents(anyList())).thenReturn(Map.of(
+                "task1", CalendarEventResult.failed("task1", true, "503 Backend Error")));
+
+        service.processDueItems();
+
+        assertThat(item.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(item.getAttempts()).isEqualTo(3);
+    }
+
+    private void due(CalendarSyncItem... items) {
+        when(queueRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                eq(Status.PENDING), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(items))
+                .thenReturn(List.of());
+    }
+
+    private Task task(Long id, LocalDateTime deadline) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDeadline(deadline);
+        return task;
+    }
+}
@@ -0,0 +1,194 @@
+package com.dali.wellness.integration.google;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dali.wellness.integration.google.GoogleCalendarService.SyncTokenExpiredException;
+import com.dali.wellness.integration.google.dto.CalendarEventChange;
+import com.dali.wellness.integration.google.dto.CalendarEventRequest;
+import com.dali.wellness.integration.google.dto.CalendarEventResult;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.calendar.Calendar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GoogleCalendarService against canned Calendar API responses:
+ * what events.list sends (syncToken, singleEvents, paging), the 410
+ * mapping, and how a batch response becomes per-event results.
+ */
+class GoogleCalendarServiceTest {
+
+    private final List<String> requestUrls = new ArrayList<>();
+    private final Deque<MockLowLevelHttpResponse> responses = new ArrayDeque<>();
+
+    private GoogleCalendarService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                requestUrls.add(url);
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        return responses.removeFirst();
+                    }
+                };
+            }
+        };
+        Calendar calendar = new Calendar.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        GoogleCalendarClient client = mock(GoogleCalendarClient.class);
+        when(client.get()).thenReturn(calendar);
+
+        service = new GoogleCalendarService(client, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "pullPageSize", 2);
+    }
+
+    @Test
+    void fullPullExpandsRecurringEventsAndFollowsPages() throws IOException {
+        responses.add(json(200, """
+                {"items": [
+                  {"id": "a_20251204T090000Z", "status": "confirmed", "summary": "Standup",
+                   "start": {"dateTime": "2025-12-04T09:00:00Z"}, "end": {"dateTime": "2025-12-04T09:15:00Z"}},
+                  {"id": "b", "status": "confirmed", "summary": "Holiday",
+                   "start": {"date": "2025-12-05"}, "end": {"date": "2025-12-06"}}],
+                 "nextPageToken": "p2"}"""));
+        responses.add(json(200, """
+                {"items": [{"id": "c", "status": "cancelled"}], "nextSyncToken": "token-1"}"""));
+
+        List<List<CalendarEventChange>> pages = new ArrayList<>();
+        String token = service.listEventChanges(null, pages::add);
+
+        assertThat(token).isEqualTo("token-1");
+        assertThat(requestUrls).hasSize(2);
+        assertThat(requestUrls).allSatisfy(url -> assertThat(url)
+                .contains("singleEvents=true")
+                .doesNotContain("syncToken="));
+        assertThat(requestUrls.get(1)).contains("pageToken=p2");
+
+        assertThat(pages).hasSize(2);
+        CalendarEventChange holiday = pages.get(0).get(1);
+        assertThat(holiday.allDay()).isTrue();
+        assertThat(holiday.start()).isEqualTo(LocalDateTime.of(2025, 12, 5, 0, 0));
+        assertThat(holiday.end()).isEqualTo(LocalDateTime.of(2025, 12, 6, 0, 0));
+        assertThat(pages.get(1).get(0).cancelled()).isTrue();
+    }
+
+    @Test
+    void incrementalPullSendsSyncTokenAndSingleEvents() throws IOException {
+        responses.add(json(200, """
+                {"items": [], "nextSyncToken": "token-2"}"""));
+
+        String token = service.listEventChanges("token-1", page -> { });
+
+        assertThat(token).isEqualTo("token-2");
+        assertThat(requestUrls).singleElement().satisfies(url -> assertThat(url)
+                .contains("syncToken=token-1")
+                .contains("singleEvents=true"));
+    }
+
+    @Test
+    void expiredSyncTokenIsReportedAsSyncTokenExpired() {
+        responses.add(json(410, """
+                {"error": {"code": 410, "message": "Sync token is no longer valid, a full sync is required.",
+                  "errors": [{"domain": "calendar", "reason": "fullSyncRequired"}]}}"""));
+
+        assertThatThrownBy(() -> service.listEventChanges("stale", page -> { }))
+                .isInstanceOf(SyncTokenExpiredException.class);
+    }
+
+    @Test
+    void batchInsertMapsEveryPartToAResult() throws IOException {
+        String boundary = "batch_test";
+        String body = part(boundary, "200 OK", """
+                {"id": "task1", "htmlLink": "https://calendar/task1"}""")
+                + part(boundary, "409 Conflict", """
+                {"error": {"code": 409, "message": "The requested identifier already exists."}}""")
+                + part(boundary, "403 Forbidden", """
+                {"error": {"code": 403, "message": "Rate Limit Exceeded",
+                  "errors": [{"domain": "usageLimits", "reason": "rateLimitExceeded"}]}}""")
+                + part(boundary, "400 Bad Request", """
+                {"error": {"code": 400, "message": "Invalid start time."}}""")
+                + "--" + boundary + "--\r\n";
+        responses.add(new MockLowLevelHttpResponse()
+                .setStatusCode(200)
+                .setContentType("multipart/mixed; boundary=" + boundary)
+                .setContent(body));
+
+        LocalDateTime start = LocalDateTime.of(2025, 12, 4, 9, 0);
+        List<CalendarEventRequest> requests = List.of(
+                new CalendarEventRequest("task1", "One", null, start, start.plusHours(1)),
+                new CalendarEventRequest("task2", "Two", null, start, start.plusHours(1)),
+                new CalendarEventRequest("task3", "Three", null, start, start.plusHours(1)),
+                new CalendarEventRequest("task4", "Four", null, start, start.plusHours(1)),
+                new CalendarEventRequest("task5", "Five", null, start, start.plusHours(1)));
+
+        Map<String, CalendarEventResult> results = service.insertEvents(requests);
+
+        // One HTTP round trip for the whole batch
+        assertThat(requestUrls).singleElement().satisfies(url -> assertThat(url).contains("batch"));
+        assertThat(results).containsOnlyKeys("task1", "task2", "task3", "task4", "task5");
+        assertThat(results.get("task1").success()).isTrue();
+        assertThat(results.get("task1").htmlLink()).isEqualTo("https://calendar/task1");
+        // Already created by an earlier attempt
+        assertThat(results.get("task2").success()).isTrue();
+        assertThat(results.get("task3").success()).isFalse();
+        assertThat(results.get("task3").retryable()).isTrue();
+        assertThat(results.get("task4").success()).isFalse();
+        assertThat(results.get("task4").retryable()).isFalse();
+        // No part in the response for it
+        assertThat(results.get("task5").retryable()).isTrue();
+    }
+
+    @Test
+    void batchLargerThanGoogleAllowsIsRejected() {
+        LocalDateTime start = LocalDateTime.of(2025, 12, 4, 9, 0);
+        List<CalendarEventRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= GoogleCalendarService.MAX_BATCH_SIZE; i++) {
+            requests.add(new CalendarEventRequest("task" + i, "Task", null, start, start.plusHours(1)));
+        }
+
+        assertThatThrownBy(() -> service.insertEvents(requests))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(requestUrls).isEmpty();
+    }
+
+    private MockLowLevelHttpResponse json(int status, String content) {
+        return new MockLowLevelHttpResponse()
+                .setStatusCode(status)
+                .setContentType(Json.MEDIA_TYPE)
+                .setContent(content);
+    }
+
+    private String part(String boundary, String status, String json) {
+        return "--" + boundary + "\r\n"
+                + "Content-Type: application/http\r\n\r\n"
+                + "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: application/json; charset=UTF-8\r\n\r\n"
+                + json + "\r\n";
+    }
+}
@@ -0,0 +1,118 @@
+package com.dali.wellness.tracking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.dali.wellness.tracking.dto.HabitLogDay;
+import com.dali.wellness.tracking.entity.Habit;
+import com.dali.wellness.tracking.entity.HabitLog;
+import com.dali.wellness.tracking.event.HabitDaysChangedEvent;
+import com.dali.wellness.tracking.repository.HabitDailyRollupRepository;
+import com.dali.wellness.tracking.repository.HabitLogBatchRepository;
+import com.dali.wellness.tracking.repository.HabitLogRepository;
+
+/**
+ * HabitRollupService "first log of the day": decided by the upsert itself,
+ * so two concurrent first logs of one habit-day publish "started" once.
+ */
+class HabitRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 4);
+
+    private final HabitDailyRollupRepository rollupRepository = mock(HabitDailyRollupRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final Habit habit = new Habit();
+
+    private HabitRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        habit.setId(1L);
+        service = new HabitRollupService(rollupRepository, mock(HabitLogRepository.class),
+                new HabitLogBatchRepository(jdbcTemplate), eventPublisher);
+    }
+
+    @Test
+    void insertedRowStartsTheDay() {
+        when(rollupRepository.upsertDelta(1L, DAY, 1, 1)).thenReturn(1);
+
+        service.onLogAdded(log(DAY));
+
+        verify(eventPublisher).publishEvent(HabitDaysChangedEvent.started(List.of(new HabitLogDay(1L, DAY))));
+    }
+
+    @Test
+    void updatedRowDoesNotStartTheDayAgain() {
+        // The concurrent first log committed before this upsert got the row lock
+        when(rollupRepository.upsertDelta(1L, DAY, 1, 1)).thenReturn(2);
+
+        service.onLogAdded(log(DAY));
+
+        verify(eventPublisher, never()).publishEvent(any(HabitDaysChangedEvent.class));
+    }
+
+    @Test
+    void batchStartsOnlyTheDaysItCreated() throws Exception {
+        LocalDate next = DAY.plusDays(1);
+        // After the upsert: DAY holds only this batch's 2 logs, next also an earlier one
+        rollupCounts(Map.of(DAY, 2L, next, 2L));
+
+        service.onLogsAdded(List.of(log(DAY), log(DAY), log(next)), 500);
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isEqualTo(HabitDaysChangedEvent.started(List.of(new HabitLogDay(1L, DAY))));
+    }
+
+    @Test
+    void batchIntoLoggedDaysStartsNothing() throws Exception {
+        rollupCounts(Map.of(DAY, 3L));
+
+        service.onLogsAdded(List.of(log(DAY)), 500);
+
+        verify(eventPublisher, never()).publishEvent(any(HabitDaysChangedEvent.class));
+    }
+
+    private void rollupCounts(Map<LocalDate, Long> counts) throws Exception {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Map.Entry<LocalDate, Long> row : counts.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("habit_id")).thenReturn(1L);
+                when(rs.getDate("log_date")).thenReturn(Date.valueOf(row.getKey()));
+                when(rs.getLong("log_count")).thenReturn(row.getValue());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private HabitLog log(LocalDate day) {
+        HabitLog log = new HabitLog();
+        log.setHabit(habit);
+        log.setLogDate(day);
+        log.setValue(1);
+        return log;
+    }
+}
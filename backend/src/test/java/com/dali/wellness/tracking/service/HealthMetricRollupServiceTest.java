@@ -0,0 +1,116 @@
+package com.dali.wellness.tracking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dali.wellness.tracking.entity.HealthMetric;
+import com.dali.wellness.tracking.entity.HealthMetricRollup.Resolution;
+import com.dali.wellness.tracking.repository.HealthMetricRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupBatchRepository;
+import com.dali.wellness.tracking.repository.HealthMetricRollupRepository;
+import com.dali.wellness.tracking.service.HealthMetricRollupService.PrunedDayException;
+
+/**
+ * Readings on days whose raw rows were dropped by retention: backdated
+ * ones only add to the buckets, edits and deletes are refused instead of
+ * recomputing the day from the few raw rows left.
+ */
+class HealthMetricRollupServiceTest {
+
+    private final HealthMetricRollupRepository rollupRepository = mock(HealthMetricRollupRepository.class);
+    private final HealthMetricRollupBatchRepository batchRepository = mock(HealthMetricRollupBatchRepository.class);
+    private final HealthMetricRepository healthMetricRepository = mock(HealthMetricRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate pruned = today.minusDays(60);
+
+    private HealthMetricRollupService rollupService;
+    private HealthMetricService metricService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new HealthMetricRollupService(rollupRepository, batchRepository,
+                healthMetricRepository, eventPublisher);
+        ReflectionTestUtils.setField(rollupService, "batchSize", 500);
+        ReflectionTestUtils.setField(rollupService, "rawRetentionDays", 30);
+        metricService = new HealthMetricService(healthMetricRepository, rollupService, eventPublisher);
+        when(healthMetricRepository.streamRowsBetween(any(), any())).thenAnswer(inv -> Stream.empty());
+        when(healthMetricRepository.save(any(HealthMetric.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void rawRowsAreKeptForeverWithoutRetention() {
+        ReflectionTestUtils.setField(rollupService, "rawRetentionDays", 0);
+
+        assertThat(rollupService.isRawKept(LocalDate.of(2000, 1, 1))).isTrue();
+    }
+
+    @Test
+    void deletingAReadingOfAPrunedDayIsRefused() {
+        HealthMetric backdated = reading(1L, pruned.atTime(8, 0));
+        when(healthMetricRepository.findById(1L)).thenReturn(Optional.of(backdated));
+
+        assertThatThrownBy(() -> metricService.deleteMetric(1L)).isInstanceOf(PrunedDayException.class);
+
+        verify(healthMetricRepository, never()).delete(any());
+        verify(rollupRepository, never()).deleteBuckets(any(), any(), any());
+    }
+
+    @Test
+    void editingAReadingOfAPrunedDayIsRefused() {
+        HealthMetric backdated = reading(1L, pruned.atTime(8, 0));
+        when(healthMetricRepository.findById(1L)).thenReturn(Optional.of(backdated));
+        HealthMetric edit = new HealthMetric();
+        edit.setRecordedAt(today.atTime(8, 0));
+
+        assertThatThrownBy(() -> metricService.updateMetric(1L, edit)).isInstanceOf(PrunedDayException.class);
+
+        assertThat(backdated.getRecordedAt()).isEqualTo(pruned.atTime(8, 0));
+        verify(rollupRepository, never()).deleteBuckets(any(), any(), any());
+    }
+
+    @Test
+    void recomputingAPrunedDayIsRefused() {
+        assertThatThrownBy(() -> rollupService.onDaysChanged(Set.of(today, pruned)))
+                .isInstanceOf(PrunedDayException.class);
+
+        verify(rollupRepository, never()).deleteBuckets(any(), any(), any());
+    }
+
+    @Test
+    void movingAReadingIntoAPrunedDayOnlyAddsToIt() {
+        HealthMetric reading = reading(1L, today.atTime(8, 0));
+        when(healthMetricRepository.findById(1L)).thenReturn(Optional.of(reading));
+        HealthMetric edit = new HealthMetric();
+        edit.setRecordedAt(pruned.atTime(8, 0));
+
+        metricService.updateMetric(1L, edit);
+
+        verify(batchRepository).upsertAll(any(), anyInt());
+        verify(rollupRepository).deleteBuckets(Resolution.DAY, today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        verify(rollupRepository, never()).deleteBuckets(eq(Resolution.DAY), eq(pruned.atStartOfDay()), any());
+    }
+
+    private HealthMetric reading(Long id, LocalDateTime recordedAt) {
+        return new HealthMetric(id, recordedAt, 7.0, 6, 3, 7, null);
+    }
+}
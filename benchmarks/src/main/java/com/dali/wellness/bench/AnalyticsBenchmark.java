@@ -0,0 +1,105 @@
+package com.dali.wellness.bench;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dali.wellness.analytics.AnalyticsService;
+import com.dali.wellness.analytics.dto.Dashboard;
+import com.dali.wellness.analytics.dto.HealthTrend;
+import com.dali.wellness.analytics.dto.Streak;
+import com.dali.wellness.analytics.dto.WeeklyHabitReport;
+import com.dali.wellness.analytics.service.StreakEngine;
+import com.dali.wellness.tracking.service.HabitRollupService;
+import com.dali.wellness.tracking.service.HealthMetricRollupService;
+
+/**
+ * Analytics Benchmark
+ * ───────────────────
+ * End-to-end AnalyticsService calls (service + repository + H2) over a
+ * generated dataset of habits × days × logsPerDay.
+ *
+ *   java -jar benchmarks/target/benchmarks.jar AnalyticsBenchmark -p habits=100 -p days=365
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Param({"10", "100"})
+    public int habits;
+
+    @Param({"30", "365"})
+    public int days;
+
+    @Param({"1", "3"})
+    public int logsPerDay;
+
+    @Param({"2"})
+    public int metricsPerDay;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private StreakEngine streakEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("analytics");
+        new DatasetGenerator(context.getBean(JdbcTemplate.class))
+                .generate(habits, days, logsPerDay, metricsPerDay);
+        context.getBean(HealthMetricRollupService.class).rebuild();
+        context.getBean(HabitRollupService.class).rebuild();
+
+        analyticsService = context.getBean(AnalyticsService.class);
+        streakEngine = context.getBean(StreakEngine.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WeeklyHabitReport weeklyHabitReport() {
+        return analyticsService.getWeeklyHabitReport();
+    }
+
+    @Benchmark
+    public HealthTrend healthTrend7Days() {
+        return analyticsService.getHealthTrend(7);
+    }
+
+    @Benchmark
+    public HealthTrend healthTrendFullWindow() {
+        return analyticsService.getHealthTrend(days);
+    }
+
+    @Benchmark
+    public Map<Long, Streak> calculateStreaks() {
+        return streakEngine.calculateStreaks(LocalDate.now());
+    }
+
+    @Benchmark
+    public Dashboard dashboard() {
+        return analyticsService.getDashboard();
+    }
+}
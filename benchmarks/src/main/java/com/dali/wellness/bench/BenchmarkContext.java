@@ -0,0 +1,43 @@
+package com.dali.wellness.bench;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.dali.wellness.WellnessTrackerApplication;
+
+/**
+ * Benchmark Context
+ * ─────────────────
+ * Boots the real backend (no web server) against an in-memory H2 database
+ * in MySQL mode. Settings are passed as command-line arguments so they
+ * override the MySQL configuration in the backend's application.properties.
+ *
+ * Analytics caching is disabled: benchmarks measure the computation,
+ * not cache hits.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(WellnessTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.cache.type=none",
+                        "--gemini.api.key=",
+                        "--logging.level.root=WARN");
+    }
+}
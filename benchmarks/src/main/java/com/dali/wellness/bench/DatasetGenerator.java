@@ -0,0 +1,94 @@
+package com.dali.wellness.bench;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Dataset Generator
+ * ─────────────────
+ * Fills the schema with a reproducible dataset of
+ *   habits × days × logsPerDay habit logs   (≈80% of habit-days logged)
+ *   days × metricsPerDay health metrics
+ * ending today, using JDBC batch inserts. A fixed seed keeps runs comparable.
+ */
+final class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] CATEGORIES = {"HEALTH", "PRODUCTIVITY", "MINDFULNESS", "LEARNING"};
+
+    private final JdbcTemplate jdbc;
+    private final Random random = new Random(42);
+
+    DatasetGenerator(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void generate(int habits, int days, int logsPerDay, int metricsPerDay) {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> habitRows = new ArrayList<>();
+        for (int h = 1; h <= habits; h++) {
+            habitRows.add(new Object[] {"Habit " + h, CATEGORIES[h % CATEGORIES.length], h % 8, now});
+        }
+        batch("INSERT INTO habit (name, category, target_per_week, created_at) VALUES (?, ?, ?, ?)", habitRows);
+
+        List<Long> habitIds = jdbc.queryForList("SELECT id FROM habit ORDER BY id", Long.class);
+        List<Object[]> logRows = new ArrayList<>();
+        for (Long habitId : habitIds) {
+            for (int d = 0; d < days; d++) {
+                if (random.nextDouble() >= 0.8) {
+                    continue;
+                }
+                Date logDate = Date.valueOf(today.minusDays(d));
+                for (int k = 0; k < logsPerDay; k++) {
+                    logRows.add(new Object[] {habitId, logDate, 1 + random.nextInt(60), now});
+                    if (logRows.size() == BATCH_SIZE) {
+                        insertLogs(logRows);
+                    }
+                }
+            }
+        }
+        insertLogs(logRows);
+
+        List<Object[]> metricRows = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            LocalDate date = today.minusDays(d);
+            for (int k = 0; k < metricsPerDay; k++) {
+                metricRows.add(new Object[] {
+                        Timestamp.valueOf(date.atTime(7 + k % 16, 0)),
+                        4.0 + random.nextInt(9) * 0.5,
+                        1 + random.nextInt(10),
+                        1 + random.nextInt(10),
+                        1 + random.nextInt(10)});
+                if (metricRows.size() == BATCH_SIZE) {
+                    insertMetrics(metricRows);
+                }
+            }
+        }
+        insertMetrics(metricRows);
+    }
+
+    private void insertLogs(List<Object[]> rows) {
+        batch("INSERT INTO habit_log (habit_id, log_date, value, created_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void insertMetrics(List<Object[]> rows) {
+        batch("INSERT INTO health_metric (recorded_at, sleep_hours, mood_score, stress_level, energy_level) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.dali.wellness.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.dali.wellness.tracking.entity.Habit;
+import com.dali.wellness.tracking.entity.HabitLog;
+import com.dali.wellness.tracking.entity.HealthMetric;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Serialization Benchmark
+ * ───────────────────────
+ * Jackson serialization of HabitLog and HealthMetric lists, as returned by
+ * the list endpoints. The ObjectMapper mirrors spring.jackson.* in the
+ * backend's application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<HabitLog> habitLogs;
+    private List<HealthMetric> healthMetrics;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new Jackson2ObjectMapperBuilder()
+                .simpleDateFormat("yyyy-MM-dd'T'HH:mm:ss")
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Habit habit = new Habit(1L, "Morning Run", "HEALTH", 3, LocalDateTime.now());
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        habitLogs = new ArrayList<>(size);
+        healthMetrics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            habitLogs.add(new HabitLog((long) i, habit, today.minusDays(i), 30, "Morning run in the park", now));
+            healthMetrics.add(new HealthMetric((long) i, now.minusHours(i), 7.5, 7, 3, 6, "Feeling good today"));
+        }
+    }
+
+    @Benchmark
+    public byte[] habitLogs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(habitLogs);
+    }
+
+    @Benchmark
+    public byte[] healthMetrics() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(healthMetrics);
+    }
+}
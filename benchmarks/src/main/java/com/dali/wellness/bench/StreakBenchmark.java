@@ -0,0 +1,55 @@
+package com.dali.wellness.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dali.wellness.analytics.dto.Streak;
+import com.dali.wellness.analytics.service.StreakEngine;
+
+/**
+ * Streak Benchmark
+ * ────────────────
+ * In-memory streak computation only (no database), over one habit's
+ * sorted epoch-day array with ~80% of days logged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreakBenchmark {
+
+    @Param({"30", "365"})
+    public int days;
+
+    private int[] loggedDays;
+    private int today;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        today = 20_000;
+        loggedDays = IntStream.rangeClosed(today - days + 1, today)
+                .filter(d -> d == today || random.nextDouble() < 0.8)
+                .toArray();
+    }
+
+    @Benchmark
+    public Streak compute() {
+        return StreakEngine.compute(loggedDays, today);
+    }
+}
@@ -19,6 +19,18 @@ class APIClient:
             print(f"API Error: {e}")
             return None
 
+    def _get_all_pages(self, path, params=None):
+        """Follows nextCursor through a paginated list endpoint and returns all items."""
+        items, query = [], dict(params or {}, limit=500)
+        while True:
+            data = self._handle_response(requests.get(f"{self.base_url}{path}", params=query))
+            if not isinstance(data, dict):
+                return items
+            items.extend(data.get("items") or [])
+            if not data.get("nextCursor"):
+                return items
+            query["cursor"] = data["nextCursor"]
+
     def check_health(self):
         """Checks if the backend is reachable."""
         try:
@@ -29,8 +41,7 @@ class APIClient:
 
     def get_habits(self):
         """Fetches all active habits."""
-        data = self._handle_response(requests.get(f"{self.base_url}/habits"))
-        return data if isinstance(data, list) else []
+        return self._get_all_pages("/habits")
 
     def create_habit(self, name, category, target):
         """Creates a new habit definition."""
@@ -44,8 +55,7 @@ class APIClient:
 
     def get_habit_logs(self, habit_id):
         """Fetches history logs for a specific habit."""
-        data = self._handle_response(requests.get(f"{self.base_url}/habits/{habit_id}/logs"))
-        return data if isinstance(data, list) else []
+        return self._get_all_pages(f"/habits/{habit_id}/logs")
 
     def log_health(self, sleep, mood, stress, energy, note):
         """Logs daily health metrics (sleep, mood, etc.)."""
@@ -61,8 +71,7 @@ class APIClient:
 
     def get_health_metrics(self):
         """Fetches all recorded health metrics."""
-        data = self._handle_response(requests.get(f"{self.base_url}/health-metrics"))
-        return data if isinstance(data, list) else []
+        return self._get_all_pages("/health-metrics")
 
     def get_health_trends(self):
         """Fetches aggregated health trends (averages) for the dashboard."""
@@ -82,8 +91,7 @@ class APIClient:
     # --- Task Management ---
     def get_tasks(self):
         """Fetches all tasks."""
-        data = self._handle_response(requests.get(f"{self.base_url}/tasks"))
-        return data if isinstance(data, list) else []
+        return self._get_all_pages("/tasks")
 
     def create_task(self, title, description, deadline):
         """Creates a new task."""